@@ -0,0 +1,59 @@
+package com.battleship.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de interpretar un SHOOT recibido en texto: TextCommand sobre el buffer
+ * de lectura contra el camino anterior (String + split + parseInt).
+ *
+ * Con -prof gc la columna gc.alloc.rate.norm da los bytes por comando:
+ *
+ *   mvn -B -Pbench compile exec:exec -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main TextCommandBenchmark -prof gc"
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextCommandBenchmark {
+
+    private final byte[] line = "SHOOT:3:5".getBytes(StandardCharsets.UTF_8);
+    private TextCommand command;
+
+    @Setup
+    public void setup() {
+        command = new TextCommand(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void textCommand(Blackhole bh) {
+        TextCommand message = command.reset(line, 0, line.length);
+        bh.consume(message.getOpcode());
+        bh.consume(message.getInt(0));
+        bh.consume(message.getInt(1));
+    }
+
+    // Como lo hacía ClientHandler antes: un String por línea y split por ':'
+    @Benchmark
+    public void stringSplit(Blackhole bh) {
+        String[] parts = new String(line, 0, line.length, StandardCharsets.UTF_8).split(":");
+        bh.consume(parts[0].hashCode());
+        bh.consume(Integer.parseInt(parts[1]));
+        bh.consume(Integer.parseInt(parts[2]));
+    }
+}
@@ -1,6 +1,12 @@
 package com.battleship.client;
 
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.Message;
 import com.battleship.common.Protocol;
+import com.battleship.common.WireReader;
+import com.battleship.common.WireWriter;
+import com.battleship.config.Config;
+import com.battleship.model.GameRules;
 import com.battleship.ui.lobby.LobbyGUI;
 import com.battleship.ui.lobby.RoomWaitingGUI;
 import com.battleship.ui.login.LoginGUI;
@@ -8,11 +14,10 @@ import com.battleship.ui.login.RegisterGUI;
 import com.battleship.ui.game.ShipPlacementGUI;
 import com.battleship.ui.game.GameGUI;
 import javax.swing.*;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class ClientController {
 
@@ -21,14 +26,15 @@ public class ClientController {
 
     // Variables de Red
     private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private WireWriter out;
+    private WireReader in;
 
     // Estado del Cliente
     private String playerName;
     private int victorias;
     private int derrotas;
     private String currentRoomId;
+    private GameRules currentRules = GameRules.DEFAULT; // Reglas de la partida en curso
     private JFrame currentView; // Referencia a la ventana actual para poder cerrarla o mostrar alertas
     private boolean running = false; // Flag para controlar el hilo de escucha
 
@@ -54,8 +60,14 @@ public class ClientController {
 
         try {
             socket = new Socket(ip, port);
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out = new WireWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            in = new WireReader(socket.getInputStream(), StandardCharsets.UTF_8, BinaryCodec.MAX_SERVER_FRAME);
+
+            // Pedir tramas binarias; con un servidor viejo se sigue en texto
+            if (Config.useBinaryProtocol()) {
+                boolean binary = WireWriter.negotiateBinary(in, out);
+                System.out.println("Protocolo: " + (binary ? "binario" : "texto"));
+            }
 
             // Iniciar un hilo separado para escuchar al servidor sin congelar la interfaz
             running = true;
@@ -74,7 +86,12 @@ public class ClientController {
     public void sendMessage(String msg) {
         if (out != null) {
             System.out.println("Enviando: " + msg); // Log para depuración
-            out.println(msg);
+            try {
+                out.send(msg);
+            } catch (IOException e) {
+                // El hilo de escucha detecta la desconexión y avisa al usuario
+                System.err.println("Error al enviar: " + e.getMessage());
+            }
         }
     }
 
@@ -84,8 +101,8 @@ public class ClientController {
      */
     private void listenToServer() {
         try {
-            String message;
-            while (running && (message = in.readLine()) != null) {
+            Message message;
+            while (running && (message = in.read()) != null) {
                 processMessage(message);
             }
         } catch (IOException e) {
@@ -101,9 +118,15 @@ public class ClientController {
     /**
      * Procesa la respuesta del servidor y actualiza la GUI.
      */
-    private void processMessage(String message) {
+    private void processMessage(Message message) {
+        // El latido se responde en este mismo hilo, sin pasar por Swing ni por el log
+        if (Protocol.PING.equals(message.getCommand())) {
+            sendPong(message);
+            return;
+        }
+
         System.out.println("Servidor dice: " + message);
-        String[] parts = message.split(":", -1); // Sin limite para manejar todos los datos
+        String[] parts = message.toParts(); // Igual que split(":", -1), también en binario
         String command = parts[0];
 
         // Usamos invokeLater porque Swing no permite tocar la UI desde otro hilo
@@ -116,7 +139,10 @@ public class ClientController {
                 case Protocol.LOGOUT_OK -> handleLogoutSuccess();
 
                 case Protocol.ERROR -> {
-                    String errorMsg = (parts.length > 1) ? parts[1] : "Error desconocido";
+                    // El texto puede contener ':' (en texto llega partido en varios campos)
+                    String errorMsg = (parts.length > 1)
+                            ? String.join(":", Arrays.copyOfRange(parts, 1, parts.length))
+                            : "Error desconocido";
                     // Manejar errores específicos de REGISTER y LOGIN
                     if (currentView instanceof RegisterGUI) {
                         ((RegisterGUI) currentView).showRegistrationError(errorMsg);
@@ -139,6 +165,18 @@ public class ClientController {
                     }
                 }
 
+                case Protocol.ROOM_ADDED, Protocol.ROOM_CHANGED -> {
+                    if (currentView instanceof LobbyGUI && parts.length > 1) {
+                        ((LobbyGUI) currentView).onRoomUpdated(parts[1]);
+                    }
+                }
+
+                case Protocol.ROOM_REMOVED -> {
+                    if (currentView instanceof LobbyGUI && parts.length > 1) {
+                        ((LobbyGUI) currentView).onRoomRemoved(parts[1]);
+                    }
+                }
+
                 case Protocol.ROOM_CREATED -> {
                     if (currentView instanceof LobbyGUI && parts.length > 1) {
                         ((LobbyGUI) currentView).onRoomCreated(parts[1]);
@@ -199,19 +237,29 @@ public class ClientController {
                     }
 
                     // Abrir GameGUI
-                    GameGUI gameGUI = new GameGUI(playerName, opponent);
+                    GameGUI gameGUI = new GameGUI(playerName, opponent, currentRules);
                     gameGUI.setVisible(true);
                     setCurrentView(gameGUI);
                 }
 
-                case "Start_Placing_Ships" -> {
+                case Protocol.START_PLACING_SHIPS -> {
                     // Abrir ShipPlacementGUI independientemente de la vista actual
                     // Esto asegura que ambos jugadores (Player1 y Player2) abran su propia ShipPlacementGUI
                     if (currentView != null) {
                         currentView.dispose();
                     }
                     
-                    ShipPlacementGUI shipPlacement = new ShipPlacementGUI(playerName);
+                    // Formato: Start_Placing_Ships:filas:columnas:tamaños (sin reglas = 8x8 clásico)
+                    currentRules = GameRules.DEFAULT;
+                    if (parts.length >= 4) {
+                        try {
+                            currentRules = GameRules.parse(parts[1], parts[2], parts[3]);
+                        } catch (IllegalArgumentException e) {
+                            System.err.println("Reglas de sala inválidas: " + e.getMessage());
+                        }
+                    }
+
+                    ShipPlacementGUI shipPlacement = new ShipPlacementGUI(playerName, currentRules);
                     shipPlacement.setVisible(true);
                     setCurrentView(shipPlacement);
                 }
@@ -272,10 +320,25 @@ public class ClientController {
                     }
                 }
 
+                case Protocol.TURN_TIMEOUT -> {
+                    if (currentView instanceof GameGUI && parts.length > 2) {
+                        ((GameGUI) currentView).onTurnTimeout(parts[1], parts[2]);
+                    }
+                }
+
+                case Protocol.ROOM_EXPIRED -> {
+                    if (currentView instanceof RoomWaitingGUI) {
+                        ((RoomWaitingGUI) currentView).onRoomExpired();
+                    }
+                }
+
                 case Protocol.GAME_OVER -> {
+                    // WIN, WIN_BY_DISCONNECT y WIN_BY_TIMEOUT cuentan como victoria
                     if (currentView instanceof GameGUI && parts.length > 1) {
-                        boolean won = parts[1].equals("WIN");
-                        ((GameGUI) currentView).onGameOver(won);
+                        ((GameGUI) currentView).onGameOver(parts[1]);
+                    } else if (currentView instanceof ShipPlacementGUI && parts.length > 1) {
+                        // La partida terminó antes de empezar (abandono o plazo de colocación)
+                        ((ShipPlacementGUI) currentView).onGameOver(parts[1]);
                     }
                 }
 
@@ -345,6 +408,15 @@ public class ClientController {
         setCurrentView(loginGUI);
     }
 
+    // PONG con la misma marca del PING (el servidor mide con ella la latencia)
+    private void sendPong(Message ping) {
+        try {
+            out.send(Message.of(Protocol.PONG, ping.size() > 0 ? ping.get(0) : ""));
+        } catch (IOException e) {
+            System.err.println("Error al enviar: " + e.getMessage());
+        }
+    }
+
     /**
      * Envía solicitud de logout al servidor
      */
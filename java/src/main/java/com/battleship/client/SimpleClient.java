@@ -2,8 +2,10 @@ package com.battleship.client;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 
 public class SimpleClient {
     public static void main(String[] args) {
@@ -13,8 +15,8 @@ public class SimpleClient {
         try (Socket socket = new Socket("localhost", 9090)) {
             
             // 2. Preparar canales de lectura/escritura
-            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
 
             // 3. ENVIAR comando de Login (Simulamos lo que harías por teclado)
             String mensaje = "LOGIN:UsuarioWindows:1234";
@@ -0,0 +1,307 @@
+package com.battleship.common;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Codificación binaria del protocolo, compartida por cliente, monitor y servidor.
+ *
+ * Trama: largo (varint) + cuerpo. Cuerpo: opcode (1 byte, ver Opcode) y luego
+ * los campos. Cada campo empieza con un tag: 0 = entero (varint zigzag), 1 = texto
+ * (largo varint + UTF-8). Si el comando no está en la tabla se usa el opcode 0 y
+ * el nombre viaja como primer campo de texto.
+ *
+ * Así "SHOT_RESULT:HIT:3:5" ocupa 11 bytes y los ':' dentro de un texto no
+ * rompen nada. Se activa con el saludo HELLO:1:BIN (ver Protocol.HELLO).
+ */
+public final class BinaryCodec {
+
+    public static final int VERSION = 1;
+    public static final String FORMAT_BINARY = "BIN";
+    public static final String FORMAT_TEXT = "TEXT";
+    // Límite de lo que envía un cliente: el servidor no acepta tramas más grandes
+    public static final int MAX_FRAME = 64 * 1024;
+    // Límite de lo que envía el servidor. ROOM_LIST y MONITOR_SNAPSHOT crecen
+    // con la cantidad de salas (unos 150 bytes por sala): con 10.000 salas ya
+    // superan MAX_FRAME, así que los clientes aceptan tramas mucho mayores
+    public static final int MAX_SERVER_FRAME = 16 * 1024 * 1024;
+
+    private static final int TAG_INT = 0;
+    private static final int TAG_STRING = 1;
+
+    private BinaryCodec() {
+    }
+
+    // --- Codificación ---
+
+    /**
+     * Codifica el mensaje como una trama completa (largo + cuerpo).
+     * Los argumentos de texto que son un entero en forma canónica ("5", "-3")
+     * se envían como entero; al decodificar vuelven a dar el mismo texto.
+     */
+    public static byte[] encode(Message message) {
+        ByteWriter body = new ByteWriter();
+        int opcode = Opcode.of(message.getCommand());
+        body.write(opcode);
+        if (opcode == Opcode.UNKNOWN) {
+            body.writeString(message.getCommand());
+        }
+        for (int i = 0; i < message.size(); i++) {
+            Object arg = message.raw(i);
+            if (arg instanceof Integer) {
+                body.writeInt((Integer) arg);
+            } else if (isCanonicalInt((String) arg)) {
+                body.writeInt(Integer.parseInt((String) arg));
+            } else {
+                body.writeString((String) arg);
+            }
+        }
+        if (body.length > MAX_SERVER_FRAME) {
+            throw new IllegalArgumentException("Mensaje demasiado grande: " + body.length + " bytes");
+        }
+
+        ByteWriter frame = new ByteWriter();
+        frame.writeVarint(body.length);
+        frame.write(body.buffer, body.length);
+        return frame.toByteArray();
+    }
+
+    private static boolean isCanonicalInt(String s) {
+        int start = s.startsWith("-") ? 1 : 0;
+        int digits = s.length() - start;
+        if (digits == 0 || digits > 10) return false;
+        // Sin ceros a la izquierda ni "-0", para que el texto se recupere igual
+        if (s.charAt(start) == '0' && (digits > 1 || start == 1)) return false;
+        for (int i = start; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        long value = Long.parseLong(s);
+        return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+    }
+
+    // --- Decodificación ---
+
+    /**
+     * Decodifica el cuerpo de una trama (sin el largo).
+     * @throws IOException si la trama está mal formada
+     */
+    public static Message decode(byte[] body, int offset, int length) throws IOException {
+        ByteReader reader = new ByteReader(body, offset, offset + length);
+        int opcode = reader.readByte();
+        String command;
+        if (opcode == Opcode.UNKNOWN) {
+            if (reader.readByte() != TAG_STRING) {
+                throw new IOException("Trama inválida: falta el nombre del comando");
+            }
+            command = reader.readString();
+        } else if (opcode < Opcode.count()) {
+            command = Opcode.nameOf(opcode);
+        } else {
+            throw new IOException("Opcode desconocido: " + opcode);
+        }
+
+        Object[] args = new Object[4];
+        int count = 0;
+        while (reader.hasRemaining()) {
+            int tag = reader.readByte();
+            Object arg;
+            if (tag == TAG_INT) {
+                arg = reader.readInt();
+            } else if (tag == TAG_STRING) {
+                arg = reader.readString();
+            } else {
+                throw new IOException("Tipo de campo desconocido: " + tag);
+            }
+            if (count == args.length) {
+                args = Arrays.copyOf(args, count * 2);
+            }
+            args[count++] = arg;
+        }
+        return Message.of(command, Arrays.copyOf(args, count));
+    }
+
+    /**
+     * Lee una trama completa de un stream bloqueante.
+     * @param maxFrame largo máximo aceptado (MAX_FRAME en el servidor, MAX_SERVER_FRAME en los clientes)
+     * @return el mensaje, o null si el stream terminó entre tramas
+     */
+    public static Message read(InputStream in, int maxFrame) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        int length = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while ((b & 0x80) != 0) {
+            b = in.read();
+            if (b < 0) throw new EOFException("Conexión cerrada a mitad de una trama");
+            if (shift > 21) throw new IOException("Largo de trama inválido");
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        }
+        checkLength(length, maxFrame);
+        byte[] body = in.readNBytes(length);
+        if (body.length < length) {
+            throw new EOFException("Conexión cerrada a mitad de una trama");
+        }
+        return decode(body, 0, length);
+    }
+
+    private static void checkLength(int length, int maxFrame) throws IOException {
+        if (length <= 0 || length > maxFrame) {
+            throw new IOException("Largo de trama inválido: " + length + " (máximo " + maxFrame + " bytes)");
+        }
+    }
+
+    /**
+     * Separa tramas a partir de ByteBuffers que llegan por partes (modo NIO).
+     * Guarda los bytes de una trama incompleta hasta que llegue el resto.
+     */
+    public static final class FrameDecoder {
+        private final int maxFrame;
+        private byte[] body = new byte[256];
+        private int bodyLength = -1; // -1 mientras se lee el largo
+        private int filled = 0;
+        private int lengthValue = 0;
+        private int lengthShift = 0;
+
+        /**
+         * @param maxFrame largo máximo de una trama (MAX_FRAME para lo que llega al servidor)
+         */
+        public FrameDecoder(int maxFrame) {
+            this.maxFrame = maxFrame;
+        }
+
+        /**
+         * Consume todos los bytes disponibles en el buffer y entrega cada mensaje completo.
+         * @throws IOException si una trama está mal formada o supera el tamaño máximo
+         */
+        public void decode(ByteBuffer in, Consumer<Message> out) throws IOException {
+            while (in.hasRemaining()) {
+                if (bodyLength < 0) {
+                    int b = in.get();
+                    if (lengthShift > 21) throw new IOException("Largo de trama inválido");
+                    lengthValue |= (b & 0x7F) << lengthShift;
+                    if ((b & 0x80) != 0) {
+                        lengthShift += 7;
+                        continue;
+                    }
+                    checkLength(lengthValue, maxFrame);
+                    bodyLength = lengthValue;
+                    filled = 0;
+                    lengthValue = 0;
+                    lengthShift = 0;
+                    if (body.length < bodyLength) {
+                        body = new byte[bodyLength];
+                    }
+                }
+                int n = Math.min(in.remaining(), bodyLength - filled);
+                in.get(body, filled, n);
+                filled += n;
+                if (filled == bodyLength) {
+                    bodyLength = -1;
+                    out.accept(BinaryCodec.decode(body, 0, filled));
+                }
+            }
+        }
+    }
+
+    // --- Helpers de bytes ---
+
+    private static final class ByteWriter {
+        private byte[] buffer = new byte[32];
+        private int length = 0;
+
+        void write(int b) {
+            ensure(1);
+            buffer[length++] = (byte) b;
+        }
+
+        void write(byte[] bytes, int count) {
+            ensure(count);
+            System.arraycopy(bytes, 0, buffer, length, count);
+            length += count;
+        }
+
+        void writeVarint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void writeInt(int value) {
+            write(TAG_INT);
+            writeVarint((value << 1) ^ (value >> 31)); // zigzag: negativos chicos ocupan poco
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            write(TAG_STRING);
+            writeVarint(bytes.length);
+            write(bytes, bytes.length);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] data;
+        private final int end;
+        private int pos;
+
+        ByteReader(byte[] data, int start, int end) {
+            this.data = data;
+            this.pos = start;
+            this.end = end;
+        }
+
+        boolean hasRemaining() {
+            return pos < end;
+        }
+
+        int readByte() throws IOException {
+            if (pos >= end) throw new IOException("Trama incompleta");
+            return data[pos++] & 0xFF;
+        }
+
+        int readVarint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Varint demasiado largo");
+        }
+
+        int readInt() throws IOException {
+            int zigzag = readVarint();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        String readString() throws IOException {
+            int length = readVarint();
+            if (length < 0 || length > end - pos) throw new IOException("Texto fuera de la trama");
+            String value = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.battleship.common;
+
+/**
+ * Vista de solo lectura de un comando recibido: opcode y argumentos.
+ * La implementan Message (tramas binarias) y TextCommand (líneas de texto
+ * leídas sin crear Strings), así el servidor despacha ambos con el mismo código.
+ */
+public interface CommandView {
+
+    /**
+     * @return el opcode del comando (Opcode.UNKNOWN si no está en la tabla)
+     */
+    int getOpcode();
+
+    String getCommand();
+
+    /**
+     * Cantidad de argumentos (sin contar el comando).
+     */
+    int size();
+
+    String get(int index);
+
+    /**
+     * @throws NumberFormatException si el argumento no es un entero
+     */
+    int getInt(int index);
+}
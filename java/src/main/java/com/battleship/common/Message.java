@@ -0,0 +1,135 @@
+package com.battleship.common;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un mensaje del protocolo: un comando y sus argumentos.
+ * Es la forma común de los mensajes en modo texto ("SHOOT:3:5") y en modo
+ * binario (ver BinaryCodec), así cliente, monitor y servidor los tratan igual.
+ *
+ * Los argumentos son Integer o String. En texto todo viaja como String;
+ * getInt convierte cuando hace falta.
+ */
+public final class Message implements CommandView {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final String command;
+    private final Object[] args;
+
+    private Message(String command, Object[] args) {
+        this.command = command;
+        this.args = args;
+    }
+
+    /**
+     * Crea un mensaje. Cada argumento debe ser Integer o String
+     * (cualquier otro objeto se envía como su toString).
+     */
+    public static Message of(String command, Object... args) {
+        Object[] copy = args.length == 0 ? NO_ARGS : new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            Object arg = args[i];
+            copy[i] = arg instanceof Integer ? arg : String.valueOf(arg);
+        }
+        return new Message(command, copy);
+    }
+
+    /**
+     * Copia un comando a un Message propio (por ejemplo para guardar un
+     * TextCommand, cuyo buffer se reutiliza en la línea siguiente).
+     */
+    public static Message copyOf(CommandView view) {
+        if (view instanceof Message) {
+            return (Message) view;
+        }
+        Object[] args = view.size() == 0 ? NO_ARGS : new Object[view.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = view.get(i);
+        }
+        return new Message(view.getCommand(), args);
+    }
+
+    /**
+     * Interpreta una línea del protocolo de texto. Equivale a split(":", -1):
+     * se conservan los campos vacíos, también al final.
+     */
+    public static Message parse(String line) {
+        int sep = line.indexOf(':');
+        if (sep < 0) {
+            return new Message(line, NO_ARGS);
+        }
+        List<Object> args = new ArrayList<>();
+        int start = sep + 1;
+        int next;
+        while ((next = line.indexOf(':', start)) >= 0) {
+            args.add(line.substring(start, next));
+            start = next + 1;
+        }
+        args.add(line.substring(start));
+        return new Message(line.substring(0, sep), args.toArray());
+    }
+
+    @Override
+    public int getOpcode() {
+        return Opcode.of(command);
+    }
+
+    @Override
+    public String getCommand() {
+        return command;
+    }
+
+    @Override
+    public int size() {
+        return args.length;
+    }
+
+    @Override
+    public String get(int index) {
+        return String.valueOf(args[index]);
+    }
+
+    @Override
+    public int getInt(int index) {
+        Object arg = args[index];
+        return arg instanceof Integer ? (Integer) arg : Integer.parseInt((String) arg);
+    }
+
+    // Usado por BinaryCodec para elegir cómo codificar cada campo
+    Object raw(int index) {
+        return args[index];
+    }
+
+    /**
+     * Comando y argumentos en un arreglo, igual que message.split(":", -1).
+     */
+    public String[] toParts() {
+        String[] parts = new String[args.length + 1];
+        parts[0] = command;
+        for (int i = 0; i < args.length; i++) {
+            parts[i + 1] = get(i);
+        }
+        return parts;
+    }
+
+    /**
+     * Representación en el protocolo de texto: COMANDO:arg1:arg2...
+     */
+    public String toText() {
+        if (args.length == 0) {
+            return command;
+        }
+        StringBuilder sb = new StringBuilder(command);
+        for (Object arg : args) {
+            sb.append(':').append(arg);
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toText();
+    }
+}
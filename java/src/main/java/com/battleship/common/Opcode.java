@@ -0,0 +1,115 @@
+package com.battleship.common;
+
+/**
+ * Tabla de opcodes del protocolo. El mismo número identifica al comando en
+ * las tramas binarias (BinaryCodec) y en el despacho del servidor, que así
+ * hace un switch sobre un int en vez de comparar Strings.
+ *
+ * Solo se agregan comandos al final para no cambiar los existentes.
+ */
+public final class Opcode {
+
+    public static final int UNKNOWN = 0;
+    public static final int HELLO = 1;
+    public static final int HELLO_OK = 2;
+    public static final int LOGIN = 3;
+    public static final int REGISTER = 4;
+    public static final int LOGOUT = 5;
+    public static final int CREATE_ROOM = 6;
+    public static final int JOIN_ROOM = 7;
+    public static final int LIST_ROOMS = 8;
+    public static final int LOBBY_SUBSCRIBE = 9;
+    public static final int LOBBY_UNSUBSCRIBE = 10;
+    public static final int SHOOT = 11;
+    public static final int PLACE_SHIPS = 12;
+    public static final int MONITOR_RESYNC = 35;
+    public static final int PING = 40;
+    public static final int PONG = 41;
+
+    private static final String[] NAMES = {
+            null,
+            Protocol.HELLO, Protocol.HELLO_OK,
+            Protocol.LOGIN, Protocol.REGISTER, Protocol.LOGOUT,
+            Protocol.CREATE_ROOM, Protocol.JOIN_ROOM, Protocol.LIST_ROOMS,
+            Protocol.LOBBY_SUBSCRIBE, Protocol.LOBBY_UNSUBSCRIBE,
+            Protocol.SHOOT, Protocol.PLACE_SHIPS,
+            Protocol.LOGIN_OK, Protocol.REGISTER_OK, Protocol.LOGOUT_OK,
+            Protocol.ROOM_LIST, Protocol.ROOM_ADDED, Protocol.ROOM_CHANGED, Protocol.ROOM_REMOVED,
+            Protocol.ROOM_CREATED, Protocol.AUTO_JOINED, Protocol.JOINED_OK, Protocol.ROOM_INFO,
+            Protocol.START_PLACING_SHIPS, Protocol.SHIPS_PLACED_OK, Protocol.GAME_START,
+            Protocol.YOUR_TURN, Protocol.OPPONENT_TURN,
+            Protocol.SHOT_RESULT, Protocol.OPPONENT_SHOT, Protocol.SHIP_SUNK, Protocol.YOUR_SHIP_SUNK,
+            Protocol.GAME_OVER, Protocol.ERROR,
+            Protocol.MONITOR_RESYNC, Protocol.MONITOR_SNAPSHOT, Protocol.MONITOR_DELTA,
+            Protocol.PLAYER_JOINED, Protocol.PLAYER_LEFT,
+            Protocol.PING, Protocol.PONG,
+            Protocol.TURN_TIMEOUT, Protocol.ROOM_EXPIRED,
+            Protocol.MONITOR_STATS
+    };
+
+    // Tabla hash (direccionamiento abierto) nombre -> opcode. El hash es el de
+    // String.hashCode, que para texto ASCII se puede calcular sobre los bytes.
+    private static final byte[][] NAME_BYTES = new byte[NAMES.length][];
+    private static final int[] TABLE = new int[128];
+    private static final int MASK = TABLE.length - 1;
+
+    static {
+        for (int op = 1; op < NAMES.length; op++) {
+            NAME_BYTES[op] = NAMES[op].getBytes(java.nio.charset.StandardCharsets.US_ASCII);
+            int slot = NAMES[op].hashCode() & MASK;
+            while (TABLE[slot] != 0) {
+                slot = (slot + 1) & MASK;
+            }
+            TABLE[slot] = op;
+        }
+    }
+
+    private Opcode() {
+    }
+
+    public static int count() {
+        return NAMES.length;
+    }
+
+    /**
+     * @return el nombre del comando, o null si el opcode no existe
+     */
+    public static String nameOf(int opcode) {
+        return opcode > 0 && opcode < NAMES.length ? NAMES[opcode] : null;
+    }
+
+    public static int of(String command) {
+        int slot = command.hashCode() & MASK;
+        int op;
+        while ((op = TABLE[slot]) != 0) {
+            if (NAMES[op].equals(command)) return op;
+            slot = (slot + 1) & MASK;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Busca el comando directamente en los bytes de la línea, sin crear un String.
+     */
+    public static int of(byte[] data, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = hash & MASK;
+        int op;
+        while ((op = TABLE[slot]) != 0) {
+            if (matches(NAME_BYTES[op], data, offset, length)) return op;
+            slot = (slot + 1) & MASK;
+        }
+        return UNKNOWN;
+    }
+
+    private static boolean matches(byte[] name, byte[] data, int offset, int length) {
+        if (name.length != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (name[i] != data[offset + i]) return false;
+        }
+        return true;
+    }
+}
@@ -1,13 +1,23 @@
 package com.battleship.common;
 
 public class Protocol {
+    // Saludo (opcional, antes de cualquier otro comando)
+    public static final String HELLO = "HELLO";       // HELLO:versión:BIN (pedir tramas binarias, ver BinaryCodec)
+    public static final String HELLO_OK = "HELLO_OK"; // HELLO_OK:BIN o HELLO_OK:TEXT (siempre en texto)
+
+    // Latido (cualquiera de los dos lados puede enviar PING; el otro responde PONG con la misma marca)
+    public static final String PING = "PING"; // PING:marca
+    public static final String PONG = "PONG"; // PONG:marca
+
     // Comandos Cliente -> Servidor
     public static final String LOGIN = "LOGIN";         // LOGIN:usuario:password
     public static final String REGISTER = "REGISTER";   // REGISTER:usuario:password:nombre:apellido:avatar
     public static final String LOGOUT = "LOGOUT";       // LOGOUT
-    public static final String CREATE_ROOM = "CREATE_ROOM";
+    public static final String CREATE_ROOM = "CREATE_ROOM"; // CREATE_ROOM o CREATE_ROOM:filas:columnas:tamaños[:segundos_por_turno] (ej. 20:20:2,3,3,4,5:30)
     public static final String JOIN_ROOM = "JOIN_ROOM"; // JOIN_ROOM:id_sala
     public static final String LIST_ROOMS = "GET_ROOMS";
+    public static final String LOBBY_SUBSCRIBE = "LOBBY_SUBSCRIBE";     // Recibir ROOM_LIST y luego los cambios
+    public static final String LOBBY_UNSUBSCRIBE = "LOBBY_UNSUBSCRIBE";
     public static final String SHOOT = "SHOOT";         // SHOOT:C:5
     public static final String PLACE_SHIPS = "PLACE_SHIPS";
 
@@ -16,18 +26,33 @@ public class Protocol {
     public static final String REGISTER_OK = "REGISTER_OK"; // REGISTER_OK
     public static final String LOGOUT_OK = "LOGOUT_OK";     // LOGOUT_OK
     public static final String ROOM_LIST = "ROOM_LIST";
+    public static final String ROOM_ADDED = "ROOM_ADDED";     // ROOM_ADDED:ID,J1,J2,Estado,Jugadores,Tablero
+    public static final String ROOM_CHANGED = "ROOM_CHANGED"; // ROOM_CHANGED:ID,J1,J2,Estado,Jugadores,Tablero
+    public static final String ROOM_REMOVED = "ROOM_REMOVED"; // ROOM_REMOVED:id_sala
     public static final String ROOM_CREATED = "ROOM_CREATED"; // ROOM_CREATED:id_sala
     public static final String AUTO_JOINED = "AUTO_JOINED"; // AUTO_JOINED:id_sala (unión automática del creador)
     public static final String JOINED_OK = "JOINED_OK";
     public static final String ROOM_INFO = "ROOM_INFO";     // ROOM_INFO:roomId:player1Name
+    public static final String START_PLACING_SHIPS = "Start_Placing_Ships"; // Start_Placing_Ships:filas:columnas:tamaños
+    public static final String SHIPS_PLACED_OK = "SHIPS_PLACED_OK";
     public static final String GAME_START = "GAME_START";
     public static final String YOUR_TURN = "YOUR_TURN";
     public static final String OPPONENT_TURN = "OPPONENT_TURN";
     public static final String SHOT_RESULT = "SHOT_RESULT"; // SHOT_RESULT:HIT:C:5
+    public static final String OPPONENT_SHOT = "OPPONENT_SHOT"; // OPPONENT_SHOT:HIT:C:5
     public static final String SHIP_SUNK = "SHIP_SUNK";     // SHIP_SUNK:tamaño:x,y:orientación
-    public static final String GAME_OVER = "GAME_OVER";
+    public static final String YOUR_SHIP_SUNK = "YOUR_SHIP_SUNK";
+    public static final String GAME_OVER = "GAME_OVER";     // GAME_OVER:WIN|LOSE|WIN_BY_DISCONNECT|WIN_BY_TIMEOUT|LOSE_BY_TIMEOUT|TIMEOUT
+    public static final String TURN_TIMEOUT = "TURN_TIMEOUT"; // TURN_TIMEOUT:jugador:PASS|FORFEIT (no disparó a tiempo)
+    public static final String ROOM_EXPIRED = "ROOM_EXPIRED"; // ROOM_EXPIRED:id_sala (nadie se unió a tiempo)
     public static final String ERROR = "ERROR";             // ERROR:mensaje
 
+    // Monitor (Admin)
+    public static final String MONITOR_RESYNC = "MONITOR_RESYNC";     // MONITOR_RESYNC (pedir foto completa)
+    public static final String MONITOR_SNAPSHOT = "MONITOR_SNAPSHOT"; // MONITOR_SNAPSHOT:seq:registro;registro;...
+    public static final String MONITOR_DELTA = "MONITOR_DELTA";       // MONITOR_DELTA:seq:+registro;-idSala;...
+    public static final String MONITOR_STATS = "MONITOR_STATS";       // MONITOR_STATS:nombre=valor,nombre=valor,... (contadores del servidor)
+
     // Notificaciones entre jugadores
     public static final String PLAYER_JOINED = "PLAYER_JOINED"; // PLAYER_JOINED:nombre_jugador
     public static final String PLAYER_LEFT = "PLAYER_LEFT";   // PLAYER_LEFT:nombre_jugador
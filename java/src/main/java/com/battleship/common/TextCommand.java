@@ -0,0 +1,112 @@
+package com.battleship.common;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Comando de texto leído directamente del buffer de lectura.
+ *
+ * reset() solo anota dónde empieza cada campo (separados por ':', con la
+ * misma semántica que split(":", -1)) y busca el opcode en los bytes. Los
+ * enteros se leen con getInt sin crear Strings; get() crea el String solo
+ * cuando se pide. Se reutiliza para cada línea de la misma conexión, así que
+ * los datos valen hasta la siguiente llamada a reset().
+ */
+public final class TextCommand implements CommandView {
+
+    private final Charset charset;
+    private byte[] data;
+    private int end;
+    private int[] starts = new int[8]; // Inicio de cada campo; el 0 es el comando
+    private int fields;
+    private int opcode;
+
+    public TextCommand(Charset charset) {
+        this.charset = charset;
+    }
+
+    public TextCommand reset(byte[] data, int offset, int length) {
+        this.data = data;
+        this.end = offset + length;
+        fields = 0;
+        starts[fields++] = offset;
+        for (int i = offset; i < end; i++) {
+            if (data[i] == ':') {
+                if (fields == starts.length) {
+                    starts = Arrays.copyOf(starts, fields * 2);
+                }
+                starts[fields++] = i + 1;
+            }
+        }
+        opcode = Opcode.of(data, offset, fieldEnd(0) - offset);
+        return this;
+    }
+
+    @Override
+    public int getOpcode() {
+        return opcode;
+    }
+
+    @Override
+    public String getCommand() {
+        String name = Opcode.nameOf(opcode);
+        return name != null ? name : field(0);
+    }
+
+    @Override
+    public int size() {
+        return fields - 1;
+    }
+
+    @Override
+    public String get(int index) {
+        checkIndex(index);
+        return field(index + 1);
+    }
+
+    @Override
+    public int getInt(int index) {
+        checkIndex(index);
+        int from = starts[index + 1];
+        int to = fieldEnd(index + 1);
+        boolean negative = false;
+        if (from < to && (data[from] == '-' || data[from] == '+')) {
+            negative = data[from] == '-';
+            from++;
+        }
+        if (from == to) {
+            throw new NumberFormatException("Número vacío");
+        }
+        // Se acumula en negativo para poder representar Integer.MIN_VALUE
+        int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+                throw new NumberFormatException("Número inválido: " + get(index));
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+
+    private String field(int field) {
+        int from = starts[field];
+        return new String(data, from, fieldEnd(field) - from, charset);
+    }
+
+    private int fieldEnd(int field) {
+        return field + 1 < fields ? starts[field + 1] - 1 : end;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= fields - 1) {
+            throw new IndexOutOfBoundsException("Argumento " + index + " de " + (fields - 1));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(data, starts[0], end - starts[0], charset);
+    }
+}
@@ -0,0 +1,89 @@
+package com.battleship.common;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Lee mensajes de un stream bloqueante, en texto (una línea por mensaje)
+ * o en tramas binarias después del saludo HELLO.
+ *
+ * Las líneas se leen byte a byte desde el mismo buffer que las tramas, así
+ * al cambiar de modo no quedan bytes binarios atrapados en un BufferedReader.
+ */
+public class WireReader {
+
+    private final InputStream in;
+    private final Charset charset;
+    private final int maxLength;
+    private byte[] line = new byte[256];
+    private volatile boolean binary = false;
+
+    /**
+     * @param maxLength largo máximo de una línea o trama: BinaryCodec.MAX_FRAME
+     *                  en el servidor, BinaryCodec.MAX_SERVER_FRAME en los clientes
+     */
+    public WireReader(InputStream in, Charset charset, int maxLength) {
+        this.in = new BufferedInputStream(in);
+        this.charset = charset;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * @return el siguiente mensaje, o null si la conexión se cerró
+     */
+    public Message read() throws IOException {
+        if (binary) {
+            return BinaryCodec.read(in, maxLength);
+        }
+        String text = readLine();
+        return text == null ? null : Message.parse(text);
+    }
+
+    /**
+     * Lee una línea de texto (sin el salto de línea).
+     * @return la línea, o null si la conexión se cerró
+     */
+    public String readLine() throws IOException {
+        int length = readLineBytes();
+        return length < 0 ? null : new String(line, 0, length, charset);
+    }
+
+    /**
+     * Lee una línea en el buffer interno (ver lineBuffer) sin crear un String.
+     * Los bytes valen hasta la siguiente lectura.
+     * @return el largo de la línea, o -1 si la conexión se cerró
+     */
+    public int readLineBytes() throws IOException {
+        int length = 0;
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                return length == 0 ? -1 : length;
+            }
+            if (length == maxLength) {
+                throw new IOException("Línea demasiado larga (máximo " + maxLength + " bytes)");
+            }
+            if (length == line.length) {
+                line = Arrays.copyOf(line, Math.min(line.length * 2, maxLength));
+            }
+            line[length++] = (byte) b;
+        }
+        if (length > 0 && line[length - 1] == '\r') length--;
+        return length;
+    }
+
+    public byte[] lineBuffer() {
+        return line;
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+}
@@ -0,0 +1,80 @@
+package com.battleship.common;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escribe mensajes a un stream bloqueante, en texto o en tramas binarias.
+ * Cada mensaje se envía completo (se vacía el buffer al terminar), y varios
+ * hilos pueden enviar a la vez sin mezclar los bytes.
+ */
+public class WireWriter {
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean binary = false;
+
+    public WireWriter(OutputStream out, Charset charset) {
+        this.out = new BufferedOutputStream(out);
+        this.charset = charset;
+    }
+
+    /**
+     * Envía una línea del protocolo de texto. En modo binario se convierte a trama.
+     */
+    public void send(String line) throws IOException {
+        if (binary) {
+            write(BinaryCodec.encode(Message.parse(line)));
+        } else {
+            write((line + "\n").getBytes(charset));
+        }
+    }
+
+    public void send(Message message) throws IOException {
+        if (binary) {
+            write(BinaryCodec.encode(message));
+        } else {
+            write((message.toText() + "\n").getBytes(charset));
+        }
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        lock.lock();
+        try {
+            out.write(bytes);
+            out.flush();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setBinary(boolean binary) {
+        this.binary = binary;
+    }
+
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Saludo del lado del cliente: pide el modo binario y espera la respuesta.
+     * Un servidor viejo responde ERROR:Comando desconocido y se sigue en texto.
+     * @return true si se pasó a modo binario
+     */
+    public static boolean negotiateBinary(WireReader in, WireWriter out) throws IOException {
+        out.send(Message.of(Protocol.HELLO, BinaryCodec.VERSION, BinaryCodec.FORMAT_BINARY));
+        Message reply = in.read();
+        if (reply != null && Protocol.HELLO_OK.equals(reply.getCommand())
+                && reply.size() > 0 && BinaryCodec.FORMAT_BINARY.equals(reply.get(0))) {
+            // El servidor ya lee tramas; sus respuestas llegan en binario desde aquí
+            in.setBinary(true);
+            out.setBinary(true);
+            return true;
+        }
+        return false;
+    }
+}
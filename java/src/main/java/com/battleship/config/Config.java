@@ -17,6 +17,7 @@ public class Config {
     // Valores por defecto
     private static final String DEFAULT_HOST = "localhost";
     private static final int DEFAULT_PORT = 9090;
+    private static final String DEFAULT_PROTOCOL = "binary";
 
     /**
      * Carga el archivo config.properties si no ha sido cargado aún
@@ -78,6 +79,15 @@ public class Config {
         }
     }
 
+    /**
+     * Indica si el cliente pide tramas binarias al conectarse (client.protocol=binary).
+     * Con client.protocol=text se usa solo el protocolo de texto.
+     */
+    public static boolean useBinaryProtocol() {
+        load();
+        return !"text".equalsIgnoreCase(properties.getProperty("client.protocol", DEFAULT_PROTOCOL).trim());
+    }
+
     /**
      * Obtiene la URL de conexión (host:port)
      */
@@ -0,0 +1,75 @@
+package com.battleship.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opciones de arranque del servidor.
+ * Cada opción se puede pasar como argumento (--io-mode=nio) o como variable
+ * de entorno con prefijo SERVER_ (SERVER_IO_MODE=nio).
+ * Prioridad: argumento > variable de entorno > valor por defecto
+ */
+public class ServerConfig {
+
+    private static final Map<String, String> args = new HashMap<>();
+
+    /**
+     * Registra los argumentos de línea de comandos con formato --nombre=valor
+     */
+    public static synchronized void init(String[] argv) {
+        if (argv == null) return;
+        for (String arg : argv) {
+            if (!arg.startsWith("--")) continue;
+            int eq = arg.indexOf('=');
+            if (eq > 2) {
+                args.put(arg.substring(2, eq).toLowerCase(), arg.substring(eq + 1));
+            } else {
+                args.put(arg.substring(2).toLowerCase(), "true");
+            }
+        }
+    }
+
+    public static synchronized String getString(String name, String defaultValue) {
+        String value = args.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getenv(toEnvKey(name));
+        }
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    public static int getInt(String name, int defaultValue) {
+        String value = getString(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[ServerConfig] Valor inválido para " + name + ": " + value + ", usando " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String name, long defaultValue) {
+        String value = getString(name, null);
+        if (value == null) return defaultValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("[ServerConfig] Valor inválido para " + name + ": " + value + ", usando " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = getString(name, null);
+        if (value == null) return defaultValue;
+        return value.equalsIgnoreCase("true") || value.equals("1") || value.equalsIgnoreCase("yes");
+    }
+
+    // io-mode -> SERVER_IO_MODE
+    private static String toEnvKey(String name) {
+        return "SERVER_" + name.toUpperCase().replace('-', '_');
+    }
+}
@@ -0,0 +1,192 @@
+package com.battleship.game;
+
+import com.battleship.model.GameRules;
+import com.battleship.model.Ship;
+
+import java.util.Arrays;
+
+/**
+ * Tablero de un jugador representado con mapas de bits (un bit por casilla,
+ * bit = fila * columnas + columna). Un tablero de 100x100 ocupa ~4 KB.
+ *
+ * Equivalencia con la representación anterior (int[8][8]):
+ * 0=Agua, 1=Barco, 2=Tocado, 3=Agua(Fallo), 4=Hundido (no se guarda por
+ * casilla: un barco está hundido cuando no le quedan casillas intactas)
+ *
+ * Además guarda qué barco ocupa cada casilla y cuántas casillas intactas le
+ * quedan a cada barco y a la flota, así hundimiento y victoria son O(1).
+ */
+class BitBoard {
+
+    private final int rows;
+    private final int cols;
+
+    private final long[] ships;   // Casillas con barco
+    private final long[] hits;    // Casillas con barco que recibieron un disparo
+    private final long[] misses;  // Disparos al agua
+
+    // Barcos en el mismo orden que la lista de barcos de la sala
+    private final Ship[] fleet;
+    private int shipCount = 0;
+
+    // Casillas sin tocar de cada barco y de toda la flota
+    private final int[] remaining;
+    private int fleetRemaining = 0;
+
+    // Índice casilla -> barco (direccionamiento abierto). Solo guarda las
+    // casillas ocupadas, así su tamaño depende de la flota y no del tablero.
+    private final int[] indexCells;   // casilla + 1 (0 = vacío)
+    private final short[] indexShips;
+    private final int indexMask;
+
+    BitBoard(GameRules rules) {
+        this.rows = rules.getRows();
+        this.cols = rules.getCols();
+        int words = (rows * cols + Long.SIZE - 1) / Long.SIZE;
+        this.ships = new long[words];
+        this.hits = new long[words];
+        this.misses = new long[words];
+        this.fleet = new Ship[rules.getShipCount()];
+        this.remaining = new int[rules.getShipCount()];
+
+        // Capacidad potencia de 2, al menos el doble de casillas ocupadas
+        int capacity = Integer.highestOneBit(rules.getFleetCells() * 2) << 1;
+        this.indexCells = new int[capacity];
+        this.indexShips = new short[capacity];
+        this.indexMask = capacity - 1;
+    }
+
+    boolean inBounds(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols;
+    }
+
+    /**
+     * true si el barco cabe completo dentro del tablero.
+     */
+    boolean fits(Ship ship) {
+        int endX = ship.getStartX() + (ship.isHorizontal() ? ship.getLength() - 1 : 0);
+        int endY = ship.getStartY() + (ship.isHorizontal() ? 0 : ship.getLength() - 1);
+        return inBounds(ship.getStartY(), ship.getStartX()) && inBounds(endY, endX);
+    }
+
+    void clear() {
+        Arrays.fill(ships, 0L);
+        Arrays.fill(hits, 0L);
+        Arrays.fill(misses, 0L);
+        Arrays.fill(indexCells, 0);
+        Arrays.fill(fleet, null);
+        shipCount = 0;
+        fleetRemaining = 0;
+    }
+
+    /**
+     * Agrega un barco al tablero. El barco debe caber (ver fits).
+     * @return false si se superpone con un barco ya colocado
+     */
+    boolean addShip(Ship ship) {
+        for (int i = 0; i < ship.getLength(); i++) {
+            if (get(ships, shipCell(ship, i))) {
+                return false;
+            }
+        }
+        for (int i = 0; i < ship.getLength(); i++) {
+            int cell = shipCell(ship, i);
+            set(ships, cell);
+            indexPut(cell, shipCount);
+        }
+        remaining[shipCount] = ship.getLength();
+        fleetRemaining += ship.getLength();
+        fleet[shipCount++] = ship;
+        return true;
+    }
+
+    /**
+     * Indica si ya se disparó a la casilla (tocado, hundido o agua).
+     */
+    boolean isShot(int row, int col) {
+        int cell = cell(row, col);
+        return get(hits, cell) || get(misses, cell);
+    }
+
+    /**
+     * Registra un disparo. La casilla no debe haber sido disparada antes.
+     * @return true si hubo impacto
+     */
+    boolean fire(int row, int col) {
+        int cell = cell(row, col);
+        if (get(ships, cell)) {
+            set(hits, cell);
+            remaining[indexGet(cell)]--;
+            fleetRemaining--;
+            return true;
+        }
+        set(misses, cell);
+        return false;
+    }
+
+    /**
+     * Después de un impacto, revisa si el barco de esa casilla quedó hundido.
+     * @return índice del barco hundido, o -1 si sigue a flote
+     */
+    int sunkShipAt(int row, int col) {
+        int shipIndex = indexGet(cell(row, col));
+        if (shipIndex < 0 || remaining[shipIndex] > 0) {
+            return -1;
+        }
+        return shipIndex;
+    }
+
+    /**
+     * true cuando todas las casillas con barco recibieron un impacto.
+     */
+    boolean allShipsSunk() {
+        return fleetRemaining == 0;
+    }
+
+    // --- Helpers de bits ---
+
+    private int cell(int row, int col) {
+        return row * cols + col;
+    }
+
+    private int shipCell(Ship ship, int i) {
+        return ship.isHorizontal()
+                ? cell(ship.getStartY(), ship.getStartX() + i)
+                : cell(ship.getStartY() + i, ship.getStartX());
+    }
+
+    private static boolean get(long[] bits, int cell) {
+        return (bits[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    private static void set(long[] bits, int cell) {
+        bits[cell >>> 6] |= 1L << cell;
+    }
+
+    // --- Índice casilla -> barco ---
+
+    private void indexPut(int cell, int shipIndex) {
+        int slot = slotOf(cell);
+        while (indexCells[slot] != 0) {
+            slot = (slot + 1) & indexMask;
+        }
+        indexCells[slot] = cell + 1;
+        indexShips[slot] = (short) shipIndex;
+    }
+
+    private int indexGet(int cell) {
+        int slot = slotOf(cell);
+        while (indexCells[slot] != 0) {
+            if (indexCells[slot] == cell + 1) {
+                return indexShips[slot];
+            }
+            slot = (slot + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    private int slotOf(int cell) {
+        int h = cell * 0x9E3779B1;
+        return (h ^ (h >>> 16)) & indexMask;
+    }
+}
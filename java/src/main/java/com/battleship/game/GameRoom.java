@@ -1,149 +1,252 @@
 package com.battleship.game;
 
 import com.battleship.server.ClientHandler;
+import com.battleship.server.SerialExecutor;
+import com.battleship.server.SharedMessage;
+import com.battleship.server.TimingWheel;
+import com.battleship.common.Message;
 import com.battleship.common.Protocol;
+import com.battleship.model.GameRules;
 import com.battleship.model.Ship;
 import java.util.ArrayList;
 import java.util.List;
-
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sala de juego. Funciona como un actor: los comandos de los jugadores entran
+ * a un buzón (mailbox) y se procesan de a uno, en orden, sobre el pool
+ * compartido de salas. Solo el buzón modifica el estado de la partida, así que
+ * no hace falta ningún lock.
+ *
+ * Los efectos (mensajes a los jugadores, avisos al monitor, cierre de la sala,
+ * base de datos) se acumulan en una bandeja de salida y se ejecutan cuando el
+ * comando ya terminó de modificar el estado. La base de datos se actualiza en
+ * otro pool para no frenar la sala.
+ *
+ * Cada sala tiene a lo sumo un reloj activo en la rueda de temporizadores del
+ * servidor (ver RoomTimeouts): espera de rival, colocación de barcos o turno.
+ * Al vencer, el reloj solo encola un comando en el buzón, así que el
+ * vencimiento se procesa en orden con los disparos.
+ */
 public class GameRoom {
     public enum State { WAITING, PLACING_SHIPS, PLAYING, FINISHED }
 
+    // Mensajes fijos: se codifican una sola vez para todas las salas
+    private static final SharedMessage YOUR_TURN = SharedMessage.of(Protocol.YOUR_TURN);
+    private static final SharedMessage OPPONENT_TURN = SharedMessage.of(Protocol.OPPONENT_TURN);
+    private static final SharedMessage SHIPS_PLACED_OK = SharedMessage.of(Protocol.SHIPS_PLACED_OK);
+    private static final SharedMessage GAME_OVER_WIN = SharedMessage.of(Protocol.GAME_OVER, "WIN");
+    private static final SharedMessage GAME_OVER_LOSE = SharedMessage.of(Protocol.GAME_OVER, "LOSE");
+    private static final SharedMessage GAME_OVER_WIN_BY_DISCONNECT = SharedMessage.of(Protocol.GAME_OVER, "WIN_BY_DISCONNECT");
+    private static final SharedMessage GAME_OVER_WIN_BY_TIMEOUT = SharedMessage.of(Protocol.GAME_OVER, "WIN_BY_TIMEOUT");
+    private static final SharedMessage GAME_OVER_LOSE_BY_TIMEOUT = SharedMessage.of(Protocol.GAME_OVER, "LOSE_BY_TIMEOUT");
+    private static final SharedMessage GAME_OVER_TIMEOUT = SharedMessage.of(Protocol.GAME_OVER, "TIMEOUT");
+
     private String roomId;
     private ClientHandler player1;
-    private ClientHandler player2;
-    private State currentState = State.WAITING;
+    // volatile: el monitor y el lobby leen el estado desde otros hilos
+    private volatile ClientHandler player2;
+    private final AtomicBoolean seatClaimed = new AtomicBoolean(false);
+    private volatile State currentState = State.WAITING;
 
-    // Tableros: 0=Agua, 1=Barco, 2=Tocado, 3=Agua(Fallo)
-    private int[][] board1 = new int[8][8];
-    private int[][] board2 = new int[8][8];
+    // Reglas de la sala (tamaño del tablero y flota)
+    private final GameRules rules;
+    // Plazos de la sala (turno, colocación, espera)
+    private final RoomTimeouts timeouts;
+
+    // Tableros como mapas de bits (ver BitBoard)
+    private final BitBoard board1;
+    private final BitBoard board2;
 
     // Rastreo de barcos de cada jugador para detección de hundimiento
     private List<Ship> player1Ships = new ArrayList<>();
     private List<Ship> player2Ships = new ArrayList<>();
 
     // Flags de estado
-    private boolean isPlayer1Turn = true;
+    private volatile boolean isPlayer1Turn = true;
+    // Turnos seguidos que vencieron sin disparo (se reinicia con cada disparo)
+    private int consecutivePasses = 0;
     private boolean p1ShipsReady = false;
     private boolean p2ShipsReady = false;
 
+    // Buzón de comandos de la sala y efectos pendientes del comando en curso
+    // (la bandeja solo se usa desde el buzón)
+    private final SerialExecutor mailbox;
+    private final List<Runnable> outbox = new ArrayList<>();
+
+    // Reloj activo de la sala (solo desde el buzón). La generación descarta un
+    // vencimiento que ya estaba encolado cuando el reloj se reprogramó.
+    private TimingWheel.Timeout clock;
+    private int clockGeneration = 0;
+    // Hora (epoch ms) en que vence el reloj, 0 si no hay; la lee el monitor
+    private volatile long deadlineMillis = 0;
+
     // Estadísticas para el Monitor
-    private int p1TotalShots = 0;
-    private int p2TotalShots = 0;
-    private int p1Hits = 0;
-    private int p2Hits = 0;
-    private int p1ShipsSunk = 0;
-    private int p2ShipsSunk = 0;
+    private volatile int p1TotalShots = 0;
+    private volatile int p2TotalShots = 0;
+    private volatile int p1Hits = 0;
+    private volatile int p2Hits = 0;
+    private volatile int p1ShipsSunk = 0;
+    private volatile int p2ShipsSunk = 0;
 
     public GameRoom(String roomId, ClientHandler p1) {
+        this(roomId, p1, GameRules.DEFAULT);
+    }
+
+    public GameRoom(String roomId, ClientHandler p1, GameRules rules) {
+        this(roomId, p1, rules, RoomTimeouts.DEFAULT);
+    }
+
+    public GameRoom(String roomId, ClientHandler p1, GameRules rules, RoomTimeouts timeouts) {
         this.roomId = roomId;
         this.player1 = p1;
+        this.rules = rules;
+        this.timeouts = timeouts;
+        this.board1 = new BitBoard(rules);
+        this.board2 = new BitBoard(rules);
+        this.mailbox = new SerialExecutor(RoomManager.getInstance().getRoomExecutor());
 
         // IMPORTANTE: El creador de la sala se une automáticamente a ella
         // Esto permite que: 1) Player2 pueda unirse después
         // 2) El Lobby del creador se cierre o se actualice
         this.currentState = State.WAITING;
+    }
 
-        // Notificar al jugador que ha unido a su propia sala
+    /**
+     * Notifica al creador que quedó unido a su propia sala y arranca el plazo
+     * de espera de rival. Se llama desde el hilo del creador, después de
+     * publicar la sala (AUTO_JOINED sale antes que ROOM_CREATED). Se envía
+     * directo: la bandeja de salida solo se usa dentro del buzón.
+     */
+    void notifyCreated() {
         if (player1 != null) {
             player1.sendMessage("AUTO_JOINED:" + roomId);
-            System.out.println("[GameRoom] Creador de sala (" + p1.getPlayerName() + ") unido automáticamente a sala: " + roomId);
+            System.out.println("[GameRoom] Creador de sala (" + player1.getPlayerName() + ") unido automáticamente a sala: " + roomId);
         }
+        submit(() -> {
+            if (currentState == State.WAITING) armClock(timeouts.getWaitingMs(), this::onWaitingTimeout);
+        });
     }
 
-    public void addPlayer2(ClientHandler p2) {
+    /**
+     * Reserva el lugar del segundo jugador de forma atómica (si dos jugadores
+     * se unen a la vez, solo uno lo consigue). No envía nada: el aviso a los
+     * jugadores va por addPlayer2.
+     * @return false si la sala ya estaba llena
+     */
+    boolean claimSeat(ClientHandler p2) {
+        if (currentState != State.WAITING || !seatClaimed.compareAndSet(false, true)) return false;
         this.player2 = p2;
-        this.currentState = State.PLACING_SHIPS;
-        
-        // Avisar a ambos que coloquen barcos
-        player1.sendMessage("Start_Placing_Ships");
-        player2.sendMessage("Start_Placing_Ships");
+        return true;
+    }
+
+    /**
+     * Confirma en el buzón el lugar reservado con claimSeat. Si entre la
+     * reserva y este comando la sala terminó (el creador se fue), p2 recibe
+     * un error y vuelve al lobby en vez de revivir una sala ya cerrada.
+     */
+    public void addPlayer2(ClientHandler p2) {
+        submit(() -> {
+            if (currentState != State.WAITING) {
+                sendError(p2, "La sala ya no está disponible");
+                after(() -> RoomManager.getInstance().subscribeLobby(p2));
+                return;
+            }
+            this.player2 = p2;
+
+            // Avisar al creador quién se unió y al nuevo jugador en qué sala está
+            // Formato: ROOM_INFO:roomId:player1Name
+            send(player1, Message.of(Protocol.PLAYER_JOINED, p2.getPlayerName()));
+            send(p2, Message.of(Protocol.ROOM_INFO, roomId, player1.getPlayerName()));
+            this.currentState = State.PLACING_SHIPS;
+
+            // Avisar a ambos que coloquen barcos, con las reglas de la sala
+            // Formato: Start_Placing_Ships:filas:columnas:tamaños
+            SharedMessage startMsg = SharedMessage.parse(Protocol.START_PLACING_SHIPS + ":" + rules.toProtocolString());
+            send(player1, startMsg);
+            send(player2, startMsg);
+            armClock(timeouts.getPlacementMs(), this::onPlacementTimeout);
+            after(() -> RoomManager.getInstance().roomChanged(this));
+        });
     }
 
     // --- Lógica de Colocación de Barcos ---
 
     // Recibe string crudo: "x,y,o;x,y,o;x,y,o;x,y,o;x,y,o"
     // Ejemplo: "0,0,0;2,3,1;5,5,0;8,8,1;12,10,0"
-    // Los barcos se envían en orden (0-4) con tamaños: 2, 3, 4, 5, 5
-    public synchronized void placeShips(ClientHandler player, String shipData) {
+    // Los barcos se envían en el orden de la flota de las reglas (por defecto 2, 2, 3, 3, 4)
+    public void placeShips(ClientHandler player, String shipData) {
+        submit(() -> doPlaceShips(player, shipData));
+    }
+
+    private void doPlaceShips(ClientHandler player, String shipData) {
         if (currentState != State.PLACING_SHIPS) return;
 
-        int[][] targetBoard = (player == player1) ? board1 : board2;
+        BitBoard targetBoard = (player == player1) ? board1 : board2;
         List<Ship> targetShips = (player == player1) ? player1Ships : player2Ships;
 
-        // Parser real de los datos de barcos
-        String[] shipStrings = shipData.split(";");
+        // Parser de los datos de barcos: recorre la cadena sin split ni substrings
+        int shipCount = countShips(shipData);
 
-        if (shipStrings.length != 5) {
-            player.sendMessage(Protocol.ERROR + ":Debes colocar exactamente 5 barcos");
+        if (shipCount != rules.getShipCount()) {
+            sendError(player, "Debes colocar exactamente " + rules.getShipCount() + " barcos");
             return;
         }
 
         // Limpiar tablero previo y lista de barcos (por si hay datos anteriores)
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                targetBoard[i][j] = 0;
-            }
-        }
+        targetBoard.clear();
         targetShips.clear();
 
-        // Tamaños de barcos según shipId (0-4) - Ajustados para tablero 8x8
-        final int[] SHIP_SIZES = {2, 2, 3, 3, 4};
-
         // Procesar cada barco
-        for (int shipId = 0; shipId < shipStrings.length; shipId++) {
-            String shipStr = shipStrings[shipId];
-            String[] coords = shipStr.split(",");
-
-            if (coords.length != 3) {
-                player.sendMessage(Protocol.ERROR + ":Formato inválido de barcos");
+        int start = 0;
+        for (int shipId = 0; shipId < shipCount; shipId++) {
+            int end = shipData.indexOf(';', start);
+            if (end < 0) end = shipData.length();
+            int comma1 = shipData.indexOf(',', start);
+            int comma2 = comma1 < 0 ? -1 : shipData.indexOf(',', comma1 + 1);
+            int comma3 = comma2 < 0 ? -1 : shipData.indexOf(',', comma2 + 1);
+
+            // Exactamente 3 valores: x,y,orientación
+            if (comma1 < 0 || comma2 < 0 || comma2 >= end || (comma3 >= 0 && comma3 < end)) {
+                sendError(player, "Formato inválido de barcos");
                 return;
             }
 
             try {
-                int x = Integer.parseInt(coords[0]);
-                int y = Integer.parseInt(coords[1]);
-                int orientation = Integer.parseInt(coords[2]);
-                int length = SHIP_SIZES[shipId];
+                int x = Integer.parseInt(shipData, start, comma1, 10);
+                int y = Integer.parseInt(shipData, comma1 + 1, comma2, 10);
+                int orientation = Integer.parseInt(shipData, comma2 + 1, end, 10);
+                int length = rules.getShipSize(shipId);
 
                 // Verificar límites antes de colocar
-                if (x < 0 || x >= 8 || y < 0 || y >= 8) {
-                    player.sendMessage(Protocol.ERROR + ":Coordenadas fuera del tablero");
+                if (!targetBoard.inBounds(y, x)) {
+                    sendError(player, "Coordenadas fuera del tablero");
                     return;
                 }
 
-                if (orientation == 0 && x + length > 8) {
-                    player.sendMessage(Protocol.ERROR + ":Barco sale del tablero por la derecha");
+                Ship ship = new Ship(shipId, length, x, y, orientation);
+                if (!targetBoard.fits(ship)) {
+                    String side = ship.isHorizontal() ? "por la derecha" : "por abajo";
+                    sendError(player, "Barco sale del tablero " + side);
                     return;
                 }
 
-                if (orientation == 1 && y + length > 8) {
-                    player.sendMessage(Protocol.ERROR + ":Barco sale del tablero por abajo");
+                if (!targetBoard.addShip(ship)) {
+                    sendError(player, "Los barcos no pueden superponerse");
                     return;
                 }
-
-                // Crear objeto Ship y agregarlo a la lista
-                Ship ship = new Ship(shipId, length, x, y, orientation);
                 targetShips.add(ship);
-
-                // Colocar barco en el tablero (1 = barco)
-                for (int i = 0; i < length; i++) {
-                    if (orientation == 0) { // Horizontal
-                        targetBoard[y][x + i] = 1;
-                    } else { // Vertical
-                        targetBoard[y + i][x] = 1;
-                    }
-                }
-            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-                player.sendMessage(Protocol.ERROR + ":Coordenadas inválidas: " + shipStr);
+            } catch (NumberFormatException e) {
+                sendError(player, "Coordenadas inválidas: " + shipData.substring(start, end));
                 return;
             }
+            start = end + 1;
         }
 
         if (player == player1) p1ShipsReady = true;
         else p2ShipsReady = true;
 
-        player.sendMessage("SHIPS_PLACED_OK");
+        send(player, SHIPS_PLACED_OK);
 
         // Si ambos están listos, iniciar combate
         if (p1ShipsReady && p2ShipsReady) {
@@ -151,36 +254,121 @@ public class GameRoom {
         }
     }
 
+    // Venció el plazo de colocación: pierde quien no colocó sus barcos
+    private void onPlacementTimeout() {
+        if (currentState != State.PLACING_SHIPS) return;
+        System.out.println("[GameRoom] " + roomId + ": venció el plazo para colocar barcos");
+        if (p1ShipsReady != p2ShipsReady) {
+            ClientHandler winner = p1ShipsReady ? player1 : player2;
+            ClientHandler loser = p1ShipsReady ? player2 : player1;
+            finishByTimeout(winner, loser);
+        } else {
+            // Ninguno colocó: la partida se anula sin resultado
+            currentState = State.FINISHED;
+            disarmClock();
+            send(player1, GAME_OVER_TIMEOUT);
+            send(player2, GAME_OVER_TIMEOUT);
+            after(() -> RoomManager.getInstance().closeRoom(this));
+        }
+    }
+
+    // Venció la espera de rival: la sala se cierra
+    private void onWaitingTimeout() {
+        if (currentState != State.WAITING || !seatClaimed.compareAndSet(false, true)) return;
+        System.out.println("[GameRoom] " + roomId + ": sala sin rival, se cierra");
+        currentState = State.FINISHED;
+        if (player1 != null) send(player1, Message.of(Protocol.ROOM_EXPIRED, roomId));
+        after(() -> RoomManager.getInstance().closeRoom(this));
+    }
+
+    // Cantidad de barcos separados por ';' (como split(";"), sin contar los vacíos del final)
+    private static int countShips(String shipData) {
+        int end = shipData.length();
+        while (end > 0 && shipData.charAt(end - 1) == ';') end--;
+        if (end == 0) return 0;
+        int count = 1;
+        for (int i = 0; i < end; i++) {
+            if (shipData.charAt(i) == ';') count++;
+        }
+        return count;
+    }
+
     private void startGame() {
         currentState = State.PLAYING;
-        player1.sendMessage("GAME_START:" + player2.getPlayerName());
-        player2.sendMessage("GAME_START:" + player1.getPlayerName());
+        send(player1, "GAME_START:" + player2.getPlayerName());
+        send(player2, "GAME_START:" + player1.getPlayerName());
         notifyTurn();
-        RoomManager.getInstance().notifyMonitors(); // Actualizar monitor
+        after(() -> RoomManager.getInstance().roomChanged(this)); // Actualizar monitor y lobby
+    }
+
+    // Venció el tiempo del turno: se pasa el turno o pierde quien no disparó
+    private void onTurnTimeout() {
+        if (currentState != State.PLAYING) return;
+        ClientHandler idle = isPlayer1Turn ? player1 : player2;
+        ClientHandler other = isPlayer1Turn ? player2 : player1;
+        RoomTimeouts.TurnPolicy policy = timeouts.getTurnPolicy();
+        if (policy == RoomTimeouts.TurnPolicy.PASS && timeouts.getMaxPasses() > 0
+                && ++consecutivePasses >= timeouts.getMaxPasses()) {
+            // Nadie dispara: se anula en vez de pasar el turno para siempre
+            System.out.println("[GameRoom] " + roomId + ": " + consecutivePasses + " turnos seguidos sin disparos, se anula la partida");
+            currentState = State.FINISHED;
+            disarmClock();
+            send(player1, GAME_OVER_TIMEOUT);
+            send(player2, GAME_OVER_TIMEOUT);
+            after(() -> RoomManager.getInstance().closeRoom(this));
+            return;
+        }
+        System.out.println("[GameRoom] " + roomId + ": " + idle.getPlayerName() + " no disparó a tiempo (" + policy + ")");
+
+        Message notice = Message.of(Protocol.TURN_TIMEOUT, idle.getPlayerName(), policy.name());
+        send(idle, notice);
+        send(other, notice);
+        if (policy == RoomTimeouts.TurnPolicy.FORFEIT) {
+            finishByTimeout(other, idle);
+        } else {
+            isPlayer1Turn = !isPlayer1Turn;
+            notifyTurn();
+            after(() -> RoomManager.getInstance().roomChanged(this));
+        }
+    }
+
+    private void finishByTimeout(ClientHandler winner, ClientHandler loser) {
+        currentState = State.FINISHED;
+        disarmClock();
+        send(winner, GAME_OVER_WIN_BY_TIMEOUT);
+        send(loser, GAME_OVER_LOSE_BY_TIMEOUT);
+        recordResult(winner, true);
+        recordResult(loser, false);
+        after(() -> RoomManager.getInstance().closeRoom(this));
     }
 
     // --- Lógica de Disparo ---
 
-    public synchronized void processShot(ClientHandler shooter, int row, int col) {
+    public void processShot(ClientHandler shooter, int row, int col) {
+        submit(() -> doProcessShot(shooter, row, col));
+    }
+
+    private void doProcessShot(ClientHandler shooter, int row, int col) {
         if (currentState != State.PLAYING) return;
 
         // Validar turno
         if ((shooter == player1 && !isPlayer1Turn) || (shooter == player2 && isPlayer1Turn)) {
-            shooter.sendMessage("ERROR:No es tu turno");
+            send(shooter, "ERROR:No es tu turno");
             return;
         }
 
         ClientHandler opponent = (shooter == player1) ? player2 : player1;
-        int[][] targetBoard = (shooter == player1) ? board2 : board1;
+        BitBoard targetBoard = (shooter == player1) ? board2 : board1;
         List<Ship> targetShips = (shooter == player1) ? player2Ships : player1Ships;
-        int[] shooterSunkCount = (shooter == player1) ? new int[]{p1ShipsSunk} : new int[]{p2ShipsSunk};
 
         // Validar límites y disparo repetido
-        if (row < 0 || row > 7 || col < 0 || col > 7 || targetBoard[row][col] >= 2) {
-            shooter.sendMessage("ERROR:Coordenada inválida");
+        if (!targetBoard.inBounds(row, col) || targetBoard.isShot(row, col)) {
+            send(shooter, "ERROR:Coordenada inválida");
             return;
         }
 
+        consecutivePasses = 0;
+
         // Actualizar estadísticas
         if (shooter == player1) {
             p1TotalShots++;
@@ -190,8 +378,7 @@ public class GameRoom {
 
         // Lógica de impacto
         String result = "MISS";
-        if (targetBoard[row][col] == 1) {
-            targetBoard[row][col] = 2; // Tocado
+        if (targetBoard.fire(row, col)) {
             result = "HIT";
 
             // Actualizar aciertos
@@ -202,23 +389,19 @@ public class GameRoom {
             }
 
             // Verificar si se hundió algún barco
-            Ship sunkShip = checkShipSunk(targetBoard, targetShips, row, col);
-            if (sunkShip != null) {
+            int sunkIndex = targetBoard.sunkShipAt(row, col);
+            if (sunkIndex >= 0) {
+                Ship sunkShip = targetShips.get(sunkIndex);
                 // Notificar hundimiento al atacante
-                String sunkMsg = String.format("SHIP_SUNK:%d:%d:%d:%s",
+                Object[] sunkArgs = {
                     sunkShip.getLength(),
                     sunkShip.getStartX(),
                     sunkShip.getStartY(),
-                    sunkShip.isHorizontal() ? "H" : "V");
-                shooter.sendMessage(sunkMsg);
+                    sunkShip.isHorizontal() ? "H" : "V"};
+                send(shooter, Message.of(Protocol.SHIP_SUNK, sunkArgs));
 
                 // Notificar al defensor con un mensaje diferente
-                String yourShipSunkMsg = String.format("YOUR_SHIP_SUNK:%d:%d:%d:%s",
-                    sunkShip.getLength(),
-                    sunkShip.getStartX(),
-                    sunkShip.getStartY(),
-                    sunkShip.isHorizontal() ? "H" : "V");
-                opponent.sendMessage(yourShipSunkMsg);
+                send(opponent, Message.of(Protocol.YOUR_SHIP_SUNK, sunkArgs));
 
                 // Incrementar contador de barcos hundados
                 if (shooter == player1) {
@@ -230,154 +413,160 @@ public class GameRoom {
 
             checkWinCondition(shooter); // Verificar si ganó
         } else {
-            targetBoard[row][col] = 3; // Agua (Fallo)
             isPlayer1Turn = !isPlayer1Turn; // Cambio de turno solo si falla
         }
 
         // Notificar resultados
-        shooter.sendMessage("SHOT_RESULT:" + result + ":" + row + ":" + col);
-        opponent.sendMessage("OPPONENT_SHOT:" + result + ":" + row + ":" + col);
+        send(shooter, Message.of(Protocol.SHOT_RESULT, result, row, col));
+        send(opponent, Message.of(Protocol.OPPONENT_SHOT, result, row, col));
 
         if (currentState == State.PLAYING) notifyTurn();
-        RoomManager.getInstance().notifyMonitors(); // Actualizar monitor
+        after(() -> RoomManager.getInstance().roomChanged(this)); // Actualizar monitor y lobby
     }
 
     private void checkWinCondition(ClientHandler shooter) {
-        int[][] targetBoard = (shooter == player1) ? board2 : board1;
-        boolean hasShipsLeft = false;
-
-        // Barrido simple: si queda algún '1', sigue el juego
-        for (int[] row : targetBoard) {
-            for (int cell : row) {
-                if (cell == 1) {
-                    hasShipsLeft = true;
-                    break;
-                }
-            }
-        }
+        BitBoard targetBoard = (shooter == player1) ? board2 : board1;
 
-        if (!hasShipsLeft) {
+        // Sin casillas de barco intactas: todos hundidos
+        if (targetBoard.allShipsSunk()) {
             // Incrementar contador de barcos hundidos del ganador
             if (shooter == player1) {
-                p1ShipsSunk = 5; // Todos los barcos hundidos
+                p1ShipsSunk = rules.getShipCount(); // Todos los barcos hundidos
             } else {
-                p2ShipsSunk = 5;
+                p2ShipsSunk = rules.getShipCount();
             }
             finishGame(shooter, (shooter == player1 ? player2 : player1), "WIN");
         }
     }
 
-    /**
-     * Verifica si algún barco ha sido hundido completamente.
-     * Retorna el barco hundido si se hundió uno, null en caso contrario.
-     *
-     * @param board Tablero del objetivo
-     * @param ships Lista de barcos del objetivo
-     * @param hitRow Fila del último impacto
-     * @param hitCol Columna del último impacto
-     * @return El barco hundido, o null si no se hundió ninguno
-     */
-    private Ship checkShipSunk(int[][] board, List<Ship> ships, int hitRow, int hitCol) {
-        // Buscar el barco que fue impactado
-        Ship hitShip = null;
-        for (Ship ship : ships) {
-            int startX = ship.getStartX();
-            int startY = ship.getStartY();
-            int length = ship.getLength();
-            boolean horizontal = ship.isHorizontal();
-
-            // Verificar si el impacto está en este barco
-            boolean isHitOnThisShip = false;
-            for (int i = 0; i < length; i++) {
-                int cellX = horizontal ? startX + i : startX;
-                int cellY = horizontal ? startY : startY + i;
-
-                if (cellX == hitCol && cellY == hitRow) {
-                    isHitOnThisShip = true;
-                    break;
-                }
-            }
+    private void finishGame(ClientHandler winner, ClientHandler loser, String reason) {
+        currentState = State.FINISHED;
+        disarmClock();
+        send(winner, GAME_OVER_WIN);
+        if (loser != null) send(loser, GAME_OVER_LOSE);
+        
+        // Actualizar Base de Datos (fuera de la sala)
+        recordResult(winner, true);
+        if (loser != null) recordResult(loser, false);
 
-            if (isHitOnThisShip) {
-                hitShip = ship;
-                break;
-            }
-        }
+        after(() -> RoomManager.getInstance().closeRoom(this));
+    }
 
-        // Si no se encontró el barco impactado, retornar null
-        if (hitShip == null) {
-            return null;
-        }
+    // --- Lógica de Desconexión (Robustez) ---
 
-        // Verificar si todas las celdas del barco están tocadas (valor 2)
-        int startX = hitShip.getStartX();
-        int startY = hitShip.getStartY();
-        int length = hitShip.getLength();
-        boolean horizontal = hitShip.isHorizontal();
+    public void handlePlayerDisconnect(ClientHandler disconnectedPlayer) {
+        submit(() -> doPlayerDisconnect(disconnectedPlayer));
+    }
 
-        boolean allCellsHit = true;
-        for (int i = 0; i < length; i++) {
-            int cellX = horizontal ? startX + i : startX;
-            int cellY = horizontal ? startY : startY + i;
+    private void doPlayerDisconnect(ClientHandler disconnectedPlayer) {
+        if (currentState == State.FINISHED) return; // Ya terminó, no importa
 
-            if (board[cellY][cellX] != 2) {
-                allCellsHit = false;
-                break;
+        if (currentState == State.PLAYING || currentState == State.PLACING_SHIPS) {
+            ClientHandler winner = (disconnectedPlayer == player1) ? player2 : player1;
+            if (winner != null) {
+                send(winner, GAME_OVER_WIN_BY_DISCONNECT);
+                recordResult(winner, true); // Gana por abandono
+                // Opcional: penalizar al que se fue con una derrota
             }
         }
+        currentState = State.FINISHED;
+        disarmClock();
+        after(() -> RoomManager.getInstance().closeRoom(this));
+    }
+
+    // --- Buzón y efectos ---
+
+    /**
+     * Encola un comando en el buzón de la sala. Al terminar el comando se
+     * ejecutan los efectos que dejó en la bandeja de salida.
+     */
+    private void submit(Runnable command) {
+        mailbox.execute(() -> {
+            try {
+                command.run();
+            } finally {
+                flushOutbox();
+            }
+        });
+    }
 
-        // Si todas las celdas están tocadas, el barco se hundió
-        if (allCellsHit) {
-            // Marcar las celdas como hundidas (valor 4)
-            for (int i = 0; i < length; i++) {
-                int cellX = horizontal ? startX + i : startX;
-                int cellY = horizontal ? startY : startY + i;
-                board[cellY][cellX] = 4;
+    private void flushOutbox() {
+        for (Runnable effect : outbox) {
+            try {
+                effect.run();
+            } catch (RuntimeException e) {
+                System.err.println("[GameRoom] Error en " + roomId + ": " + e.getMessage());
             }
-            return hitShip;
         }
+        outbox.clear();
+    }
 
-        return null;
+    private void send(ClientHandler player, String message) {
+        outbox.add(() -> player.sendMessage(message));
     }
 
-    private void finishGame(ClientHandler winner, ClientHandler loser, String reason) {
-        currentState = State.FINISHED;
-        winner.sendMessage("GAME_OVER:WIN");
-        if (loser != null) loser.sendMessage("GAME_OVER:LOSE");
-        
-        // Actualizar Base de Datos
-        winner.recordGameResult(true);
-        if (loser != null) loser.recordGameResult(false);
-        
-        RoomManager.getInstance().closeRoom(this);
+    private void send(ClientHandler player, Message message) {
+        outbox.add(() -> player.sendMessage(message));
     }
 
-    // --- Lógica de Desconexión (Robustez) ---
+    // ERROR con texto libre como un solo campo (puede contener ':')
+    private void sendError(ClientHandler player, String text) {
+        send(player, Message.of(Protocol.ERROR, text));
+    }
 
-    public synchronized void handlePlayerDisconnect(ClientHandler disconnectedPlayer) {
-        if (currentState == State.FINISHED) return; // Ya terminó, no importa
+    private void send(ClientHandler player, SharedMessage message) {
+        outbox.add(() -> player.sendMessage(message));
+    }
 
-        if (currentState == State.PLAYING || currentState == State.PLACING_SHIPS) {
-            ClientHandler winner = (disconnectedPlayer == player1) ? player2 : player1;
-            if (winner != null) {
-                winner.sendMessage("GAME_OVER:WIN_BY_DISCONNECT");
-                winner.recordGameResult(true); // Gana por abandono
-                // Opcional: penalizar al que se fue con una derrota
-            }
+    private void after(Runnable effect) {
+        outbox.add(effect);
+    }
+
+    // --- Reloj de la sala ---
+
+    /**
+     * Reemplaza el reloj de la sala: al pasar delayMs se encola onExpire en el
+     * buzón. Con delayMs = 0 la sala queda sin reloj.
+     */
+    private void armClock(long delayMs, Runnable onExpire) {
+        disarmClock();
+        if (delayMs <= 0) return;
+        int generation = clockGeneration;
+        clock = RoomManager.getInstance().getTimers().schedule(delayMs, () -> submit(() -> {
+            if (generation != clockGeneration) return; // Reloj viejo
+            clock = null;
+            deadlineMillis = 0;
+            onExpire.run();
+        }));
+        deadlineMillis = System.currentTimeMillis() + delayMs;
+    }
+
+    private void disarmClock() {
+        if (clock != null) {
+            clock.cancel();
+            clock = null;
         }
-        RoomManager.getInstance().closeRoom(this);
+        clockGeneration++;
+        deadlineMillis = 0;
+    }
+
+    private void recordResult(ClientHandler player, boolean won) {
+        // Solo encola el resultado (se guarda en lotes, ver GameResultWriter)
+        after(() -> player.recordGameResult(won));
     }
 
     // --- Getters y Helpers ---
     
+    // Avisa de quién es el turno y reinicia el reloj del turno
     private void notifyTurn() {
         if (currentState != State.PLAYING) return;
+        armClock(timeouts.getTurnMs(), this::onTurnTimeout);
         if (isPlayer1Turn) {
-            player1.sendMessage("YOUR_TURN");
-            player2.sendMessage("OPPONENT_TURN");
+            send(player1, YOUR_TURN);
+            send(player2, OPPONENT_TURN);
         } else {
-            player2.sendMessage("YOUR_TURN");
-            player1.sendMessage("OPPONENT_TURN");
+            send(player2, YOUR_TURN);
+            send(player1, OPPONENT_TURN);
         }
     }
 
@@ -386,6 +575,10 @@ public class GameRoom {
     public ClientHandler getPlayer1() { return player1; }
     public ClientHandler getPlayer2() { return player2; }
     public State getState() { return currentState; }
+    public GameRules getRules() { return rules; }
+    public RoomTimeouts getTimeouts() { return timeouts; }
+    // Hora (epoch ms) en que vence el reloj actual, 0 si no hay reloj
+    public long getDeadlineMillis() { return deadlineMillis; }
     public String getTurnInfo() {
         if (currentState != State.PLAYING) return "-";
         return isPlayer1Turn ? player1.getPlayerName() : player2.getPlayerName();
@@ -0,0 +1,100 @@
+package com.battleship.game;
+
+import com.battleship.common.Protocol;
+import com.battleship.server.ClientHandler;
+import com.battleship.server.SerialExecutor;
+import com.battleship.server.SharedMessage;
+import com.battleship.server.ServerScheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Envía a los jugadores que están en el lobby los cambios de la lista de salas.
+ *
+ * Al suscribirse el jugador recibe ROOM_LIST completo una sola vez; después
+ * solo recibe ROOM_ADDED, ROOM_CHANGED y ROOM_REMOVED cuando cambian los
+ * datos visibles de una sala (jugadores, estado). Los disparos no generan
+ * eventos porque no cambian la fila del lobby.
+ *
+ * El estado publicado solo se modifica desde el hilo de ServerScheduler, así
+ * la foto inicial y los eventos siguientes quedan en orden.
+ */
+class LobbyPublisher {
+
+    private final Function<String, String> recordFor; // null si la sala ya no existe
+    private final Executor delivery;
+
+    // Salas con cambios desde el último tick
+    private final Set<String> dirtyRooms = ConcurrentHashMap.newKeySet();
+    // Última fila enviada de cada sala (solo hilo del scheduler)
+    private final Map<String, String> published = new LinkedHashMap<>();
+    // Cada suscriptor recibe sus mensajes en orden, sin frenar a los demás
+    private final Map<ClientHandler, SerialExecutor> subscribers = new ConcurrentHashMap<>();
+
+    LobbyPublisher(Function<String, String> recordFor, Executor delivery, long intervalMs) {
+        this.recordFor = recordFor;
+        this.delivery = delivery;
+        ServerScheduler.scheduleAtFixedRate("lobby-publisher", this::tick, intervalMs);
+    }
+
+    void markDirty(String roomId) {
+        dirtyRooms.add(roomId);
+    }
+
+    void subscribe(ClientHandler player) {
+        ServerScheduler.schedule("lobby-subscribe", () -> {
+            SerialExecutor outbox = subscribers.computeIfAbsent(player, p -> new SerialExecutor(delivery));
+            // Formato: ROOM_LIST:fila|fila|...
+            String list = Protocol.ROOM_LIST + ":" + String.join("|", published.values());
+            outbox.execute(() -> player.sendMessage(list));
+        }, 0);
+    }
+
+    void unsubscribe(ClientHandler player) {
+        ServerScheduler.schedule("lobby-unsubscribe", () -> subscribers.remove(player), 0);
+    }
+
+    private void tick() {
+        if (dirtyRooms.isEmpty()) {
+            return;
+        }
+
+        // Cada evento se codifica una vez y se comparte entre todos los suscriptores
+        List<SharedMessage> events = new ArrayList<>();
+        for (String roomId : dirtyRooms) {
+            dirtyRooms.remove(roomId);
+            String record = recordFor.apply(roomId);
+            if (record == null) {
+                if (published.remove(roomId) != null) {
+                    events.add(SharedMessage.of(Protocol.ROOM_REMOVED, roomId));
+                }
+            } else {
+                String previous = published.put(roomId, record);
+                if (previous == null) {
+                    events.add(SharedMessage.of(Protocol.ROOM_ADDED, record));
+                } else if (!previous.equals(record)) {
+                    events.add(SharedMessage.of(Protocol.ROOM_CHANGED, record));
+                }
+            }
+        }
+
+        if (events.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<ClientHandler, SerialExecutor> subscriber : subscribers.entrySet()) {
+            ClientHandler player = subscriber.getKey();
+            subscriber.getValue().execute(() -> {
+                for (SharedMessage event : events) {
+                    player.sendMessage(event);
+                }
+            });
+        }
+    }
+}
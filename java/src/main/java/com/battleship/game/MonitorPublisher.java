@@ -0,0 +1,263 @@
+package com.battleship.game;
+
+import com.battleship.common.Protocol;
+import com.battleship.server.ClientHandler;
+import com.battleship.server.ServerScheduler;
+import com.battleship.server.ServerStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Publica el estado de las salas a los monitores (Admin) sin frenar el juego.
+ *
+ * Los cambios solo marcan la sala como "sucia". En cada tick se arma el
+ * registro de cada sala sucia y se envían a los monitores solo las salas que
+ * cambiaron (MONITOR_DELTA). Al suscribirse, o si pide MONITOR_RESYNC, el
+ * monitor recibe una foto completa (MONITOR_SNAPSHOT). Cada mensaje lleva un
+ * número de secuencia por monitor para que pueda detectar saltos.
+ *
+ * Si un monitor es lento, los cambios pendientes se combinan (el último
+ * registro de cada sala gana) y se envían juntos cuando termina el envío anterior.
+ * Si aun así su cola de salida se llena, la conexión descarta los mensajes de
+ * monitor más viejos y el monitor se recupera con MONITOR_RESYNC.
+ *
+ * Aparte, cada statsIntervalMs se envían los contadores del servidor
+ * (ServerStats) como MONITOR_STATS, solo si cambiaron. No llevan secuencia:
+ * cada mensaje trae todos los valores.
+ *
+ * El estado publicado solo se modifica desde el hilo de ServerScheduler.
+ */
+class MonitorPublisher {
+
+    private final Function<String, String> recordFor; // null si la sala ya no existe
+    private final Executor delivery;
+
+    // Salas con cambios desde el último tick
+    private final Set<String> dirtyRooms = ConcurrentHashMap.newKeySet();
+    // Último registro enviado de cada sala (solo hilo del scheduler)
+    private final Map<String, String> published = new LinkedHashMap<>();
+    private final Map<ClientHandler, Slot> slots = new ConcurrentHashMap<>();
+    // Último MONITOR_STATS enviado (solo hilo del scheduler)
+    private String publishedStats;
+
+    MonitorPublisher(Function<String, String> recordFor, Executor delivery, long intervalMs, long statsIntervalMs) {
+        this.recordFor = recordFor;
+        this.delivery = delivery;
+        ServerScheduler.scheduleAtFixedRate("monitor-publisher", this::tick, intervalMs);
+        ServerScheduler.scheduleAtFixedRate("monitor-stats", this::publishStats, statsIntervalMs);
+    }
+
+    /**
+     * Marca que una sala cambió. Es barato: se puede llamar en cada disparo.
+     */
+    void markDirty(String roomId) {
+        dirtyRooms.add(roomId);
+    }
+
+    void addMonitor(ClientHandler monitor) {
+        ServerScheduler.schedule("monitor-subscribe", () -> {
+            Slot slot = new Slot(monitor);
+            slots.put(monitor, slot);
+            // Foto completa del estado publicado; los cambios siguientes llegan como delta
+            slot.offerSnapshot(new ArrayList<>(published.values()));
+            if (publishedStats != null) {
+                sendStats(monitor, publishedStats);
+            }
+        }, 0);
+    }
+
+    void resync(ClientHandler monitor) {
+        ServerScheduler.schedule("monitor-resync", () -> {
+            Slot slot = slots.get(monitor);
+            if (slot != null) {
+                slot.offerSnapshot(new ArrayList<>(published.values()));
+            }
+        }, 0);
+    }
+
+    void removeMonitor(ClientHandler monitor) {
+        slots.remove(monitor);
+    }
+
+    private void tick() {
+        if (dirtyRooms.isEmpty()) {
+            return;
+        }
+
+        // Cambios del tick: roomId -> registro nuevo, o null si la sala se cerró
+        Map<String, String> changes = new HashMap<>();
+        for (String roomId : dirtyRooms) {
+            dirtyRooms.remove(roomId);
+            String record = recordFor.apply(roomId);
+            if (record == null) {
+                if (published.remove(roomId) != null) {
+                    changes.put(roomId, null);
+                }
+            } else if (!record.equals(published.put(roomId, record))) {
+                changes.put(roomId, record);
+            }
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+        for (Slot slot : slots.values()) {
+            slot.offerChanges(changes);
+        }
+    }
+
+    private void publishStats() {
+        String message = Protocol.MONITOR_STATS + ":" + ServerStats.snapshot();
+        if (message.equals(publishedStats)) {
+            return;
+        }
+        publishedStats = message;
+        for (ClientHandler monitor : slots.keySet()) {
+            sendStats(monitor, message);
+        }
+    }
+
+    private void sendStats(ClientHandler monitor, String message) {
+        delivery.execute(() -> monitor.sendMonitorUpdate(message));
+    }
+
+    /**
+     * Cambios pendientes de un monitor. Solo hay un envío en curso por monitor;
+     * lo que llega mientras tanto se combina con lo pendiente.
+     */
+    private class Slot {
+        private final ClientHandler monitor;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final AtomicBoolean sending = new AtomicBoolean(false);
+
+        // Protegidos por lock
+        private List<String> pendingSnapshot;
+        private final Map<String, String> pendingChanges = new LinkedHashMap<>();
+        private long seq = 0;
+
+        Slot(ClientHandler monitor) {
+            this.monitor = monitor;
+        }
+
+        void offerSnapshot(List<String> records) {
+            lock.lock();
+            try {
+                // La foto reemplaza cualquier cambio pendiente
+                pendingSnapshot = records;
+                pendingChanges.clear();
+            } finally {
+                lock.unlock();
+            }
+            scheduleDrain();
+        }
+
+        void offerChanges(Map<String, String> changes) {
+            lock.lock();
+            try {
+                if (pendingSnapshot != null) {
+                    // Aplicar los cambios sobre la foto que todavía no se envió
+                    applyToSnapshot(changes);
+                } else {
+                    pendingChanges.putAll(changes);
+                }
+            } finally {
+                lock.unlock();
+            }
+            scheduleDrain();
+        }
+
+        private void applyToSnapshot(Map<String, String> changes) {
+            Map<String, String> merged = new LinkedHashMap<>();
+            for (String record : pendingSnapshot) {
+                merged.put(roomIdOf(record), record);
+            }
+            for (Map.Entry<String, String> change : changes.entrySet()) {
+                if (change.getValue() == null) {
+                    merged.remove(change.getKey());
+                } else {
+                    merged.put(change.getKey(), change.getValue());
+                }
+            }
+            pendingSnapshot = new ArrayList<>(merged.values());
+        }
+
+        private void scheduleDrain() {
+            if (sending.compareAndSet(false, true)) {
+                delivery.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                String message;
+                while ((message = takeMessage()) != null) {
+                    monitor.sendMonitorUpdate(message);
+                }
+            } finally {
+                sending.set(false);
+                // Si llegaron cambios justo al terminar, volver a programar
+                if (hasPending()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private boolean hasPending() {
+            lock.lock();
+            try {
+                return pendingSnapshot != null || !pendingChanges.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Formato: MONITOR_SNAPSHOT:seq:registro;registro;...
+        //          MONITOR_DELTA:seq:+registro;-idSala;...
+        private String takeMessage() {
+            lock.lock();
+            try {
+                StringBuilder sb = new StringBuilder();
+                if (pendingSnapshot != null) {
+                    sb.append(Protocol.MONITOR_SNAPSHOT).append(':').append(++seq).append(':');
+                    for (String record : pendingSnapshot) {
+                        sb.append(record).append(';');
+                    }
+                    pendingSnapshot = null;
+                    return sb.toString();
+                }
+                if (pendingChanges.isEmpty()) {
+                    return null;
+                }
+                sb.append(Protocol.MONITOR_DELTA).append(':').append(++seq).append(':');
+                for (Map.Entry<String, String> change : pendingChanges.entrySet()) {
+                    if (change.getValue() == null) {
+                        sb.append('-').append(change.getKey());
+                    } else {
+                        sb.append('+').append(change.getValue());
+                    }
+                    sb.append(';');
+                }
+                pendingChanges.clear();
+                return sb.toString();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // El ID de la sala es el primer campo del registro
+    private static String roomIdOf(String record) {
+        int end = record.indexOf('|');
+        return end < 0 ? record : record.substring(0, end);
+    }
+}
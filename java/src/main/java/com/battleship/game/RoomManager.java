@@ -1,146 +1,237 @@
 package com.battleship.game;
 
+import com.battleship.config.ServerConfig;
 import com.battleship.server.ClientHandler;
-import com.battleship.common.Protocol;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CopyOnWriteArrayList;
+import com.battleship.server.TimingWheel;
+import com.battleship.model.GameRules;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class RoomManager {
-    private static RoomManager instance;
-    private List<GameRoom> rooms;
-    // Lista segura para hilos para los monitores (Admins)
-    private List<ClientHandler> monitors; 
+    // Instancia creada al cargar la clase: getInstance() se llama en cada disparo
+    // y no necesita sincronización
+    private static final RoomManager instance = new RoomManager();
+    // Salas indexadas por ID: búsqueda O(1) sin locks para JOIN_ROOM, PLACE_SHIPS y SHOOT
+    private final ConcurrentHashMap<String, GameRoom> rooms = new ConcurrentHashMap<>();
+    // Publicador de estado para los monitores (Admins)
+    private final MonitorPublisher monitorPublisher;
+    // Publicador de la lista de salas para los jugadores en el lobby
+    private final LobbyPublisher lobbyPublisher;
+
+    // Límite de salas activas (max-rooms, 0 = sin límite) y contador de salas
+    private final int maxRooms;
+    private final AtomicInteger activeRooms = new AtomicInteger();
+    // Los IDs nunca se reutilizan aunque se cierren salas
+    private final AtomicLong nextRoomId = new AtomicLong();
+
+    // Pool compartido donde se procesan los buzones de todas las salas
+    private final ExecutorService roomExecutor;
+    // Pool para trabajo bloqueante que no debe frenar a las salas (envío a suscriptores)
+    private final ExecutorService blockingExecutor;
+    // Relojes de todas las salas (turno, colocación, espera)
+    private final TimingWheel timers;
 
     private RoomManager() {
-        rooms = new CopyOnWriteArrayList<>(); // Lista thread-safe
-        monitors = new CopyOnWriteArrayList<>();
+        maxRooms = ServerConfig.getInt("max-rooms", 4);
+
+        int roomThreads = ServerConfig.getInt("room-threads", Runtime.getRuntime().availableProcessors());
+        AtomicInteger roomCount = new AtomicInteger();
+        roomExecutor = Executors.newFixedThreadPool(Math.max(1, roomThreads), r -> {
+            Thread t = new Thread(r, "room-worker-" + roomCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger blockingCount = new AtomicInteger();
+        blockingExecutor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "room-io-" + blockingCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        // 512 casilleros de 100 ms: una vuelta cada ~51 s, los plazos más largos dan varias vueltas
+        timers = new TimingWheel("room-timers", Math.max(10, ServerConfig.getLong("timer-tick-ms", 100)), 512);
+
+        // Como máximo una foto por intervalo, sin importar cuántos disparos haya
+        long monitorInterval = ServerConfig.getLong("monitor-interval-ms", 250);
+        long statsInterval = ServerConfig.getLong("monitor-stats-interval-ms", 1000);
+        monitorPublisher = new MonitorPublisher(this::getMonitorRecord, blockingExecutor,
+                Math.max(10, monitorInterval), Math.max(100, statsInterval));
+        long lobbyInterval = ServerConfig.getLong("lobby-interval-ms", 100);
+        lobbyPublisher = new LobbyPublisher(this::getLobbyRecord, blockingExecutor, Math.max(10, lobbyInterval));
     }
 
-    public static synchronized RoomManager getInstance() {
-        if (instance == null) instance = new RoomManager();
+    public static RoomManager getInstance() {
         return instance;
     }
 
     // --- Gestión de Salas ---
 
-    public synchronized GameRoom createRoom(ClientHandler player) {
-        if (rooms.size() >= 4) return null;
-        
-        String id = "Sala-" + (rooms.size() + 1);
-        GameRoom room = new GameRoom(id, player);
-        rooms.add(room);
-        notifyMonitors(); // Avisar al admin que hay nueva sala
+    public GameRoom createRoom(ClientHandler player) {
+        return createRoom(player, GameRules.DEFAULT);
+    }
+
+    public GameRoom createRoom(ClientHandler player, GameRules rules) {
+        return createRoom(player, rules, RoomTimeouts.DEFAULT);
+    }
+
+    public GameRoom createRoom(ClientHandler player, GameRules rules, RoomTimeouts timeouts) {
+        // Reservar un lugar antes de crear la sala
+        if (activeRooms.incrementAndGet() > maxRooms && maxRooms > 0) {
+            activeRooms.decrementAndGet();
+            return null;
+        }
+
+        String id = "Sala-" + nextRoomId.incrementAndGet();
+        GameRoom room = new GameRoom(id, player, rules, timeouts);
+        rooms.put(id, room);
+        room.notifyCreated();
+        roomChanged(room); // Avisar al admin y al lobby que hay nueva sala
         return room;
     }
 
-    public synchronized boolean joinRoom(String roomId, ClientHandler player) {
+    public boolean joinRoom(String roomId, ClientHandler player) {
         GameRoom room = getRoomById(roomId);
-        if (room != null && !room.isFull()) {
-            // Notificar al jugador existente (Player1) que alguien se va a unir
-            ClientHandler player1 = room.getPlayer1();
-            if (player1 != null) {
-                player1.sendMessage(Protocol.PLAYER_JOINED + ":" + player.getPlayerName());
-                
-                // Enviar información de la sala al nuevo jugador (Player2)
-                // Formato: ROOM_INFO:roomId:player1Name
-                player.sendMessage("ROOM_INFO:" + roomId + ":" + player1.getPlayerName());
-            }
-
-            // Agregar el nuevo jugador (Player2)
-            room.addPlayer2(player);
-            notifyMonitors(); // Avisar cambio de estado
-            return true;
+        if (room == null || !room.claimSeat(player)) {
+            return false;
         }
-        return false;
+
+        // Agregar el nuevo jugador (Player2): el buzón de la sala confirma el
+        // lugar, avisa a ambos y publica el cambio de estado
+        room.addPlayer2(player);
+        return true;
     }
 
     public GameRoom getRoomById(String id) {
-        return rooms.stream()
-                .filter(r -> r.getRoomId().equals(id))
-                .findFirst()
-                .orElse(null);
+        return id == null ? null : rooms.get(id);
+    }
+
+    public int getRoomCount() {
+        return activeRooms.get();
     }
 
-    // Formato simplificado para enviar al cliente: "ID,J1,J2,Estado,Jugadores|ID,J1,J2,Estado,Jugadores|..."
-    // Ejemplo: "Sala-1,player1,---,WAITING,1/2|Sala-1,player1,jugador2,PLACING_SHIPS,2/2|"
+    // Formato simplificado para enviar al cliente: "ID,J1,J2,Estado,Jugadores,Tablero|..."
+    // Ejemplo: "Sala-1,player1,---,WAITING,1/2,8x8|Sala-2,player1,jugador2,PLACING_SHIPS,2/2,20x20"
     public String getRoomListString() {
         StringBuilder sb = new StringBuilder();
-        for (GameRoom room : rooms) {
-            sb.append(room.getRoomId()).append(",");
-            sb.append(room.getPlayer1() != null ? room.getPlayer1().getPlayerName() : "---").append(",");
-            sb.append(room.getPlayer2() != null ? room.getPlayer2().getPlayerName() : "---").append(",");
-            sb.append(room.getState().name()).append(",");
-
-            // Calcular cantidad de jugadores
-            int playerCount = 0;
-            if (room.getPlayer1() != null) playerCount++;
-            if (room.getPlayer2() != null) playerCount++;
-            sb.append(playerCount).append("/2");
-
-            sb.append("|"); // Separador de salas
+        for (GameRoom room : rooms.values()) {
+            if (sb.length() > 0) sb.append("|"); // Separador de salas
+            appendLobbyRecord(sb, room);
         }
+        return sb.toString();
+    }
+
+    // Fila de una sala para el lobby (null si la sala ya no existe)
+    private String getLobbyRecord(String roomId) {
+        GameRoom room = rooms.get(roomId);
+        if (room == null) return null;
+        StringBuilder sb = new StringBuilder();
+        appendLobbyRecord(sb, room);
+        return sb.toString();
+    }
 
-        // Eliminar el último separador si existe
-        String result = sb.toString();
-        if (result.endsWith("|")) {
-            result = result.substring(0, result.length() - 1);
+    private void appendLobbyRecord(StringBuilder sb, GameRoom room) {
+        sb.append(room.getRoomId()).append(",");
+        sb.append(room.getPlayer1() != null ? room.getPlayer1().getPlayerName() : "---").append(",");
+        sb.append(room.getPlayer2() != null ? room.getPlayer2().getPlayerName() : "---").append(",");
+        sb.append(room.getState().name()).append(",");
+
+        // Calcular cantidad de jugadores
+        int playerCount = 0;
+        if (room.getPlayer1() != null) playerCount++;
+        if (room.getPlayer2() != null) playerCount++;
+        sb.append(playerCount).append("/2").append(",");
+        sb.append(room.getRules().getSizeLabel());
+    }
+
+    public void closeRoom(GameRoom room) {
+        // remove(id, room) es atómico: si dos hilos cierran la misma sala solo uno descuenta
+        if (rooms.remove(room.getRoomId(), room)) {
+            activeRooms.decrementAndGet();
+            roomChanged(room);
         }
+    }
+
+    // --- Ejecutores compartidos ---
+
+    Executor getRoomExecutor() {
+        return roomExecutor;
+    }
+
+    TimingWheel getTimers() {
+        return timers;
+    }
 
-        // Debug
-        System.out.println("[RoomManager] Enviando ROOM_LIST: " + result);
+    // --- Suscripción del lobby ---
 
-        return result;
+    // El jugador entra al lobby: recibe ROOM_LIST y luego solo los cambios
+    public void subscribeLobby(ClientHandler player) {
+        lobbyPublisher.subscribe(player);
     }
 
-    public synchronized void closeRoom(GameRoom room) {
-        rooms.remove(room);
-        notifyMonitors();
+    public void unsubscribeLobby(ClientHandler player) {
+        lobbyPublisher.unsubscribe(player);
     }
 
     // --- Gestión de Monitores (Admin) ---
 
     public void addMonitor(ClientHandler monitor) {
-        monitors.add(monitor);
-        // Enviar estado actual inmediatamente
-        monitor.sendMessage("MONITOR_DATA:" + getMonitorData());
+        monitorPublisher.addMonitor(monitor);
     }
 
     public void removeMonitor(ClientHandler monitor) {
-        monitors.remove(monitor);
+        monitorPublisher.removeMonitor(monitor);
     }
 
-    // Genera string con estado de todas las salas para el Admin
-    // Formato: ID|Jugador1|Jugador2|Estado|Turno|P1Shots|P1Hits|P1Sunk|P2Shots|P2Hits|P2Sunk;...
-    private String getMonitorData() {
+    // El monitor detectó un salto en la secuencia y pide la foto completa
+    public void resyncMonitor(ClientHandler monitor) {
+        monitorPublisher.resync(monitor);
+    }
+
+    // Registro de una sala para el Admin (null si la sala ya no existe)
+    // Formato: ID|Jugador1|Jugador2|Estado|Turno|P1Shots|P1Hits|P1Sunk|P2Shots|P2Hits|P2Sunk|Tablero|Barcos
+    //          |P1Rtt|P2Rtt|SegundosPorTurno|Vence (epoch ms, 0 = sin reloj)
+    private String getMonitorRecord(String roomId) {
+        GameRoom r = rooms.get(roomId);
+        if (r == null) return null;
+
+        String p1Name = (r.getPlayer1() != null) ? r.getPlayer1().getPlayerName() : "---";
+        String p2Name = (r.getPlayer2() != null) ? r.getPlayer2().getPlayerName() : "---";
+        String turnInfo = (r.getPlayer1() != null) ? r.getTurnInfo() : "---";
+
         StringBuilder sb = new StringBuilder();
-        for (GameRoom r : rooms) {
-            String p1Name = (r.getPlayer1() != null) ? r.getPlayer1().getPlayerName() : "---";
-            String p2Name = (r.getPlayer2() != null) ? r.getPlayer2().getPlayerName() : "---";
-            String turnInfo = (r.getPlayer1() != null) ? r.getTurnInfo() : "---";
-
-            sb.append(r.getRoomId()).append("|")
-              .append(p1Name).append("|")
-              .append(p2Name).append("|")
-              .append(r.getState()).append("|")
-              .append(turnInfo).append("|")
-              .append(r.getP1TotalShots()).append("|")
-              .append(r.getP1Hits()).append("|")
-              .append(r.getP1ShipsSunk()).append("|")
-              .append(r.getP2TotalShots()).append("|")
-              .append(r.getP2Hits()).append("|")
-              .append(r.getP2ShipsSunk())
-              .append(";");
-        }
+        sb.append(r.getRoomId()).append("|")
+          .append(p1Name).append("|")
+          .append(p2Name).append("|")
+          .append(r.getState()).append("|")
+          .append(turnInfo).append("|")
+          .append(r.getP1TotalShots()).append("|")
+          .append(r.getP1Hits()).append("|")
+          .append(r.getP1ShipsSunk()).append("|")
+          .append(r.getP2TotalShots()).append("|")
+          .append(r.getP2Hits()).append("|")
+          .append(r.getP2ShipsSunk()).append("|")
+          .append(r.getRules().getSizeLabel()).append("|")
+          .append(r.getRules().getShipCount()).append("|")
+          .append(rttOf(r.getPlayer1())).append("|")
+          .append(rttOf(r.getPlayer2())).append("|")
+          .append(r.getTimeouts().getTurnMs() / 1000).append("|")
+          .append(r.getDeadlineMillis());
         return sb.toString();
     }
 
-    // Notifica a todos los admins conectados cuando algo cambia
-    public void notifyMonitors() {
-        String data = getMonitorData();
-        for (ClientHandler m : monitors) {
-            m.sendMessage("MONITOR_DATA:" + data);
-        }
+    // Latencia medida por el latido, o -1 si no hay jugador o todavía no se midió
+    private static long rttOf(ClientHandler player) {
+        return player != null ? player.getRttMillis() : -1;
+    }
+
+    // Avisa que la sala cambió. Admins y lobby reciben el cambio en el
+    // siguiente tick de cada publicador (ver MonitorPublisher y LobbyPublisher)
+    public void roomChanged(GameRoom room) {
+        monitorPublisher.markDirty(room.getRoomId());
+        lobbyPublisher.markDirty(room.getRoomId());
     }
 }
\ No newline at end of file
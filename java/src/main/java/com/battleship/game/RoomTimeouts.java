@@ -0,0 +1,70 @@
+package com.battleship.game;
+
+import com.battleship.config.ServerConfig;
+
+/**
+ * Plazos de una sala, en milisegundos (0 = sin límite).
+ *
+ * - turno: tiempo para disparar. Al vencer se pasa el turno (turn-timeout-policy=pass)
+ *   o pierde el jugador que no disparó (forfeit). Con pass, tras
+ *   turn-timeout-max-passes turnos seguidos sin disparos la partida se anula.
+ * - colocación: tiempo para enviar PLACE_SHIPS una vez que la sala se llenó.
+ *   Pierde quien no colocó; si no colocó ninguno la partida se anula.
+ * - espera: tiempo que una sala WAITING puede quedar sin rival antes de cerrarse.
+ *
+ * Los valores por defecto salen de las opciones del servidor; el tiempo por turno
+ * se puede cambiar al crear la sala (CREATE_ROOM:filas:columnas:tamaños:segundos).
+ */
+public final class RoomTimeouts {
+
+    public enum TurnPolicy { PASS, FORFEIT }
+
+    // Límite para el tiempo por turno pedido por un cliente
+    public static final int MAX_TURN_SECONDS = 600;
+
+    public static final RoomTimeouts DEFAULT = new RoomTimeouts(
+            Math.max(0, ServerConfig.getLong("turn-timeout-ms", 60_000)),
+            Math.max(0, ServerConfig.getLong("placement-timeout-ms", 180_000)),
+            Math.max(0, ServerConfig.getLong("waiting-timeout-ms", 600_000)),
+            "forfeit".equalsIgnoreCase(ServerConfig.getString("turn-timeout-policy", "pass"))
+                    ? TurnPolicy.FORFEIT : TurnPolicy.PASS,
+            Math.max(0, ServerConfig.getInt("turn-timeout-max-passes", 4)));
+
+    private final long turnMs;
+    private final long placementMs;
+    private final long waitingMs;
+    private final TurnPolicy turnPolicy;
+    private final int maxPasses;
+
+    private RoomTimeouts(long turnMs, long placementMs, long waitingMs, TurnPolicy turnPolicy, int maxPasses) {
+        this.turnMs = turnMs;
+        this.placementMs = placementMs;
+        this.waitingMs = waitingMs;
+        this.turnPolicy = turnPolicy;
+        this.maxPasses = maxPasses;
+    }
+
+    /**
+     * Copia con otro tiempo por turno, elegido por el creador de la sala.
+     * @throws IllegalArgumentException si no es un número entre 0 y MAX_TURN_SECONDS
+     */
+    public RoomTimeouts withTurnSeconds(String seconds) {
+        int value;
+        try {
+            value = Integer.parseInt(seconds.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Tiempo por turno inválido");
+        }
+        if (value < 0 || value > MAX_TURN_SECONDS) {
+            throw new IllegalArgumentException("El tiempo por turno debe estar entre 0 y " + MAX_TURN_SECONDS + " segundos");
+        }
+        return new RoomTimeouts(value * 1000L, placementMs, waitingMs, turnPolicy, maxPasses);
+    }
+
+    public long getTurnMs() { return turnMs; }
+    public long getPlacementMs() { return placementMs; }
+    public long getWaitingMs() { return waitingMs; }
+    public TurnPolicy getTurnPolicy() { return turnPolicy; }
+    // Turnos vencidos seguidos que anulan la partida con PASS (0 = sin límite)
+    public int getMaxPasses() { return maxPasses; }
+}
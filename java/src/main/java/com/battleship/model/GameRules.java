@@ -0,0 +1,95 @@
+package com.battleship.model;
+
+import java.util.Arrays;
+
+/**
+ * Reglas de una sala: dimensiones del tablero y tamaños de la flota.
+ * Se comparte entre servidor y cliente.
+ *
+ * Formato en el protocolo: filas:columnas:tamaños
+ * Ejemplo: 8:8:2,2,3,3,4
+ */
+public class GameRules {
+
+    public static final int MIN_SIZE = 5;
+    public static final int MAX_SIZE = 100;
+    public static final int MAX_SHIPS = 200;
+
+    // Reglas clásicas del proyecto: tablero 8x8 con 5 barcos
+    public static final GameRules DEFAULT = new GameRules(8, 8, new int[]{2, 2, 3, 3, 4});
+
+    private final int rows;
+    private final int cols;
+    private final int[] fleet;
+    private final int fleetCells;
+
+    public GameRules(int rows, int cols, int[] fleet) {
+        if (rows < MIN_SIZE || rows > MAX_SIZE || cols < MIN_SIZE || cols > MAX_SIZE) {
+            throw new IllegalArgumentException("El tablero debe medir entre " + MIN_SIZE + " y " + MAX_SIZE + " casillas por lado");
+        }
+        if (fleet == null || fleet.length == 0 || fleet.length > MAX_SHIPS) {
+            throw new IllegalArgumentException("La flota debe tener entre 1 y " + MAX_SHIPS + " barcos");
+        }
+        int cells = 0;
+        for (int size : fleet) {
+            if (size < 1 || size > Math.max(rows, cols)) {
+                throw new IllegalArgumentException("Tamaño de barco inválido: " + size);
+            }
+            cells += size;
+        }
+        if (cells > rows * cols / 2) {
+            throw new IllegalArgumentException("La flota no cabe en el tablero");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.fleet = fleet.clone();
+        this.fleetCells = cells;
+    }
+
+    /**
+     * Construye las reglas a partir de los campos del protocolo.
+     * @throws IllegalArgumentException si algún valor es inválido
+     */
+    public static GameRules parse(String rows, String cols, String fleet) {
+        try {
+            String[] sizes = fleet.split(",");
+            int[] parsed = new int[sizes.length];
+            for (int i = 0; i < sizes.length; i++) {
+                parsed[i] = Integer.parseInt(sizes[i].trim());
+            }
+            return new GameRules(Integer.parseInt(rows.trim()), Integer.parseInt(cols.trim()), parsed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Reglas de sala inválidas");
+        }
+    }
+
+    public String toProtocolString() {
+        return rows + ":" + cols + ":" + getFleetString();
+    }
+
+    // Tamaños separados por coma: "2,2,3,3,4"
+    public String getFleetString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fleet.length; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(fleet[i]);
+        }
+        return sb.toString();
+    }
+
+    public int getRows() { return rows; }
+    public int getCols() { return cols; }
+    public int getShipCount() { return fleet.length; }
+    public int getShipSize(int shipId) { return fleet[shipId]; }
+    public int getFleetCells() { return fleetCells; }
+    public int[] getFleet() { return fleet.clone(); }
+
+    public String getSizeLabel() {
+        return rows + "x" + cols;
+    }
+
+    @Override
+    public String toString() {
+        return "GameRules[" + getSizeLabel() + ", flota=" + Arrays.toString(fleet) + "]";
+    }
+}
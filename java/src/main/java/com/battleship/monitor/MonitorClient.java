@@ -1,10 +1,15 @@
 package com.battleship.monitor;
 
-import java.io.BufferedReader;
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.Message;
+import com.battleship.common.Protocol;
+import com.battleship.common.WireReader;
+import com.battleship.common.WireWriter;
+import com.battleship.config.Config;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Cliente que se conecta al servidor como Monitor (ADMIN).
@@ -13,17 +18,22 @@ import java.net.Socket;
 public class MonitorClient {
 
     private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private WireWriter out;
+    private WireReader in;
     private MonitorDataListener listener;
     private boolean running = false;
+    // Última secuencia recibida; -1 mientras se espera una foto completa
+    private long lastSeq = -1;
 
     /**
      * Interface para notificar a la GUI cuando llegan datos nuevos
      */
     public interface MonitorDataListener {
-        void onDataReceived(String data);
+        void onSnapshot(String data);           // Todas las salas: registro;registro;...
+        void onRoomUpdated(String record);      // Sala nueva o modificada
+        void onRoomRemoved(String roomId);      // Sala cerrada
         void onConnectionError(String error);
+        default void onServerStats(String stats) { } // Contadores: nombre=valor,nombre=valor,...
     }
 
     public MonitorClient(MonitorDataListener listener) {
@@ -36,15 +46,20 @@ public class MonitorClient {
     public boolean connect(String host, int port) {
         try {
             socket = new Socket(host, port);
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            out = new WireWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+            in = new WireReader(socket.getInputStream(), StandardCharsets.UTF_8, BinaryCodec.MAX_SERVER_FRAME);
+
+            // Pedir tramas binarias; con un servidor viejo se sigue en texto
+            if (Config.useBinaryProtocol()) {
+                WireWriter.negotiateBinary(in, out);
+            }
 
             // Autenticarse como ADMIN
-            out.println("LOGIN:ADMIN:admin123");
+            out.send("LOGIN:ADMIN:admin123");
 
             // Leer respuesta de login
-            String response = in.readLine();
-            if (response != null && response.startsWith("LOGIN_OK")) {
+            Message response = in.read();
+            if (response != null && Protocol.LOGIN_OK.equals(response.getCommand())) {
                 // Login exitoso, iniciar hilo de escucha
                 running = true;
                 new Thread(this::listenForUpdates).start();
@@ -65,12 +80,21 @@ public class MonitorClient {
      */
     private void listenForUpdates() {
         try {
-            String line;
-            while (running && (line = in.readLine()) != null) {
-                if (line.startsWith("MONITOR_DATA:")) {
-                    // Extraer los datos después de "MONITOR_DATA:"
-                    String data = line.substring(13);
-                    listener.onDataReceived(data);
+            Message message;
+            while (running && (message = in.read()) != null) {
+                if (Protocol.PING.equals(message.getCommand())) {
+                    out.send(Message.of(Protocol.PONG, message.size() > 0 ? message.get(0) : ""));
+                    continue;
+                }
+                if (Protocol.MONITOR_STATS.equals(message.getCommand())) {
+                    listener.onServerStats(message.size() > 0 ? message.get(0) : "");
+                    continue;
+                }
+                if (message.size() < 2) continue;
+                if (Protocol.MONITOR_SNAPSHOT.equals(message.getCommand())) {
+                    handleSnapshot(Long.parseLong(message.get(0)), message.get(1));
+                } else if (Protocol.MONITOR_DELTA.equals(message.getCommand())) {
+                    handleDelta(Long.parseLong(message.get(0)), message.get(1));
                 }
             }
         } catch (IOException e) {
@@ -80,6 +104,35 @@ public class MonitorClient {
         }
     }
 
+    // Formato: seq:registro;registro;...
+    private void handleSnapshot(long seq, String records) {
+        lastSeq = seq;
+        listener.onSnapshot(records);
+    }
+
+    // Formato: seq:+registro;-idSala;...
+    private void handleDelta(long seq, String changes) throws IOException {
+        if (lastSeq < 0) return; // Esperando la foto completa
+
+        if (seq != lastSeq + 1) {
+            // Se perdió algún cambio: descartar deltas hasta recibir una foto nueva
+            System.err.println("[MonitorClient] Secuencia inesperada " + seq + " (esperada " + (lastSeq + 1) + "), pidiendo foto completa");
+            lastSeq = -1;
+            out.send(Protocol.MONITOR_RESYNC);
+            return;
+        }
+        lastSeq = seq;
+
+        for (String change : changes.split(";")) {
+            if (change.isEmpty()) continue;
+            if (change.charAt(0) == '+') {
+                listener.onRoomUpdated(change.substring(1));
+            } else if (change.charAt(0) == '-') {
+                listener.onRoomRemoved(change.substring(1));
+            }
+        }
+    }
+
     /**
      * Cierra la conexión con el servidor
      */
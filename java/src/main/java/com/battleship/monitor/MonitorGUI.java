@@ -5,12 +5,18 @@ import com.battleship.config.Config;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 /**
  * Interfaz gráfica del Monitor para visualizar salas y estadísticas en tiempo real.
  */
 public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListener {
 
+    private static final DateTimeFormatter DEADLINE_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss").withZone(ZoneId.systemDefault());
+
     private MonitorClient client;
     private DefaultTableModel tableModel;
     private JTable roomTable;
@@ -18,9 +24,13 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
 
     // Panel de estadísticas
     private JTextArea statsArea;
+    // Contadores del servidor (MONITOR_STATS)
+    private JTextArea serverStatsArea;
 
-    // Datos de las salas parseados
+    // Datos de las salas parseados (mismo orden que las filas de la tabla)
     private java.util.List<RoomData> rooms = new java.util.ArrayList<>();
+    // ID de sala -> fila de la tabla
+    private java.util.Map<String, Integer> rowIndex = new java.util.HashMap<>();
 
     public MonitorGUI() {
         initComponents();
@@ -70,7 +80,7 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         });
 
         JScrollPane tableScrollPane = new JScrollPane(roomTable);
-        tableScrollPane.setBorder(BorderFactory.createTitledBorder("Salas Activas (Máximo 4)"));
+        tableScrollPane.setBorder(BorderFactory.createTitledBorder("Salas Activas"));
 
         // Panel de estadísticas
         statsArea = new JTextArea();
@@ -84,8 +94,18 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, tableScrollPane, statsScrollPane);
         splitPane.setResizeWeight(0.6);
 
+        // Panel inferior: contadores del servidor
+        serverStatsArea = new JTextArea(3, 0);
+        serverStatsArea.setEditable(false);
+        serverStatsArea.setLineWrap(true);
+        serverStatsArea.setWrapStyleWord(true);
+        serverStatsArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane serverStatsScrollPane = new JScrollPane(serverStatsArea);
+        serverStatsScrollPane.setBorder(BorderFactory.createTitledBorder("Servidor"));
+
         add(topPanel, BorderLayout.NORTH);
         add(splitPane, BorderLayout.CENTER);
+        add(serverStatsScrollPane, BorderLayout.SOUTH);
     }
 
     private void connectToServer() {
@@ -110,13 +130,30 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
     }
 
     @Override
-    public void onDataReceived(String data) {
+    public void onSnapshot(String data) {
         // Parsear los datos y actualizar la tabla en el hilo de Swing
         SwingUtilities.invokeLater(() -> {
             parseAndUpdateTable(data);
         });
     }
 
+    @Override
+    public void onRoomUpdated(String record) {
+        SwingUtilities.invokeLater(() -> upsertRoom(record));
+    }
+
+    @Override
+    public void onRoomRemoved(String roomId) {
+        SwingUtilities.invokeLater(() -> removeRoom(roomId));
+    }
+
+    // Formato: nombre=valor,nombre=valor,...
+    @Override
+    public void onServerStats(String stats) {
+        String text = stats.isEmpty() ? "Sin contadores" : stats.replace("=", ": ").replace(",", "   ");
+        SwingUtilities.invokeLater(() -> serverStatsArea.setText(text));
+    }
+
     @Override
     public void onConnectionError(String error) {
         SwingUtilities.invokeLater(() -> {
@@ -127,53 +164,111 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
     }
 
     /**
-     * Parsea el string de datos del servidor y actualiza la tabla.
-     * Formato: ID|Jugador1|Jugador2|Estado|Turno|P1Shots|P1Hits|P1Sunk|P2Shots|P2Hits|P2Sunk;...
+     * Reemplaza la tabla completa con una foto del servidor.
+     * Formato: ID|Jugador1|Jugador2|Estado|Turno|P1Shots|P1Hits|P1Sunk|P2Shots|P2Hits|P2Sunk|Tablero|Barcos;...
      */
     private void parseAndUpdateTable(String data) {
         rooms.clear();
+        rowIndex.clear();
         tableModel.setRowCount(0);
 
-        if (data == null || data.trim().isEmpty()) {
-            return;
+        if (data != null && !data.trim().isEmpty()) {
+            for (String roomStr : data.split(";")) {
+                RoomData room = parseRoom(roomStr);
+                if (room != null) {
+                    addRow(room);
+                }
+            }
         }
 
-        String[] roomsData = data.split(";");
-        for (String roomStr : roomsData) {
-            String[] fields = roomStr.split("\\|");
-            if (fields.length >= 11) {
-                RoomData room = new RoomData();
-                room.id = fields[0];
-                room.player1 = fields[1];
-                room.player2 = fields[2];
-                room.state = fields[3];
-                room.turn = fields[4];
-
-                try {
-                    room.p1Shots = Integer.parseInt(fields[5]);
-                    room.p1Hits = Integer.parseInt(fields[6]);
-                    room.p1Sunk = Integer.parseInt(fields[7]);
-                    room.p2Shots = Integer.parseInt(fields[8]);
-                    room.p2Hits = Integer.parseInt(fields[9]);
-                    room.p2Sunk = Integer.parseInt(fields[10]);
-                } catch (NumberFormatException e) {
-                    System.err.println("Error parseando estadísticas: " + e.getMessage());
-                    continue; // Saltar esta sala si hay error
-                }
+        // Actualizar panel de estadísticas si hay una sala seleccionada
+        updateStatsPanel();
+    }
 
-                rooms.add(room);
+    /**
+     * Agrega o actualiza solo la fila de una sala.
+     */
+    private void upsertRoom(String record) {
+        RoomData room = parseRoom(record);
+        if (room == null) return;
 
-                // Agregar fila a la tabla
-                tableModel.addRow(new Object[]{
-                    room.id, room.player1, room.player2, room.state, room.turn
-                });
+        Integer row = rowIndex.get(room.id);
+        if (row == null) {
+            addRow(room);
+        } else {
+            rooms.set(row, room);
+            tableModel.setValueAt(room.player1, row, 1);
+            tableModel.setValueAt(room.player2, row, 2);
+            tableModel.setValueAt(room.state, row, 3);
+            tableModel.setValueAt(room.turn, row, 4);
+            if (row == roomTable.getSelectedRow()) {
+                updateStatsPanel();
             }
         }
+    }
 
-        // Actualizar panel de estadísticas si hay una sala seleccionada
+    private void removeRoom(String roomId) {
+        Integer row = rowIndex.remove(roomId);
+        if (row == null) return;
+
+        rooms.remove((int) row);
+        tableModel.removeRow(row);
+        // Las filas siguientes se corren una posición
+        for (int i = row; i < rooms.size(); i++) {
+            rowIndex.put(rooms.get(i).id, i);
+        }
         updateStatsPanel();
     }
 
+    private void addRow(RoomData room) {
+        rowIndex.put(room.id, rooms.size());
+        rooms.add(room);
+        tableModel.addRow(new Object[]{
+            room.id, room.player1, room.player2, room.state, room.turn
+        });
+    }
+
+    // Registro: ID|Jugador1|Jugador2|Estado|Turno|P1Shots|P1Hits|P1Sunk|P2Shots|P2Hits|P2Sunk|Tablero|Barcos|P1Rtt|P2Rtt
+    //           |SegundosPorTurno|Vence
+    private RoomData parseRoom(String roomStr) {
+        String[] fields = roomStr.split("\\|");
+        if (fields.length < 11) {
+            return null;
+        }
+
+        RoomData room = new RoomData();
+        room.id = fields[0];
+        room.player1 = fields[1];
+        room.player2 = fields[2];
+        room.state = fields[3];
+        room.turn = fields[4];
+
+        try {
+            room.p1Shots = Integer.parseInt(fields[5]);
+            room.p1Hits = Integer.parseInt(fields[6]);
+            room.p1Sunk = Integer.parseInt(fields[7]);
+            room.p2Shots = Integer.parseInt(fields[8]);
+            room.p2Hits = Integer.parseInt(fields[9]);
+            room.p2Sunk = Integer.parseInt(fields[10]);
+            if (fields.length >= 13) {
+                room.boardSize = fields[11];
+                room.shipCount = Integer.parseInt(fields[12]);
+            }
+            if (fields.length >= 15) {
+                room.p1Rtt = Long.parseLong(fields[13]);
+                room.p2Rtt = Long.parseLong(fields[14]);
+            }
+            if (fields.length >= 17) {
+                room.turnSeconds = Integer.parseInt(fields[15]);
+                room.deadline = Long.parseLong(fields[16]);
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error parseando estadísticas: " + e.getMessage());
+            return null; // Saltar esta sala si hay error
+        }
+        return room;
+    }
+
     /**
      * Actualiza el panel de estadísticas con la sala seleccionada
      */
@@ -192,7 +287,8 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         sb.append("JUGADOR 1: ").append(room.player1).append("\n");
         sb.append("  Disparos Totales: ").append(room.p1Shots).append("\n");
         sb.append("  Aciertos: ").append(room.p1Hits).append("\n");
-        sb.append("  Barcos Hundidos: ").append(room.p1Sunk).append("/5\n");
+        sb.append("  Barcos Hundidos: ").append(room.p1Sunk).append("/").append(room.shipCount).append("\n");
+        sb.append("  Latencia: ").append(formatRtt(room.p1Rtt)).append("\n");
 
         if (room.p1Shots > 0) {
             double accuracy = (room.p1Hits * 100.0) / room.p1Shots;
@@ -203,7 +299,8 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         sb.append("JUGADOR 2: ").append(room.player2).append("\n");
         sb.append("  Disparos Totales: ").append(room.p2Shots).append("\n");
         sb.append("  Aciertos: ").append(room.p2Hits).append("\n");
-        sb.append("  Barcos Hundidos: ").append(room.p2Sunk).append("/5\n");
+        sb.append("  Barcos Hundidos: ").append(room.p2Sunk).append("/").append(room.shipCount).append("\n");
+        sb.append("  Latencia: ").append(formatRtt(room.p2Rtt)).append("\n");
 
         if (room.p2Shots > 0) {
             double accuracy = (room.p2Hits * 100.0) / room.p2Shots;
@@ -211,8 +308,13 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         }
 
         sb.append("\n");
+        sb.append("Tablero: ").append(room.boardSize).append("\n");
         sb.append("Estado: ").append(room.state).append("\n");
         sb.append("Turno: ").append(room.turn).append("\n");
+        sb.append("Tiempo por turno: ").append(room.turnSeconds > 0 ? room.turnSeconds + " s" : "sin límite").append("\n");
+        if (room.deadline > 0) {
+            sb.append("Vence: ").append(formatDeadline(room.deadline)).append("\n");
+        }
 
         // Determinar quién va ganando
         if (room.p1Sunk > room.p2Sunk) {
@@ -226,6 +328,15 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         statsArea.setText(sb.toString());
     }
 
+    private static String formatRtt(long rtt) {
+        return rtt < 0 ? "---" : rtt + " ms";
+    }
+
+    // Hora local en que vence el reloj de la sala (turno, colocación o espera)
+    private static String formatDeadline(long epochMillis) {
+        return DEADLINE_FORMAT.format(Instant.ofEpochMilli(epochMillis));
+    }
+
     /**
      * Clase interna para almacenar datos de una sala
      */
@@ -241,5 +352,11 @@ public class MonitorGUI extends JFrame implements MonitorClient.MonitorDataListe
         int p2Shots;
         int p2Hits;
         int p2Sunk;
+        String boardSize = "8x8";
+        int shipCount = 5;
+        long p1Rtt = -1;
+        long p2Rtt = -1;
+        int turnSeconds = 0;
+        long deadline = 0;
     }
 }
@@ -0,0 +1,177 @@
+package com.battleship.persistence;
+
+import com.battleship.config.ServerConfig;
+import com.battleship.model.Player;
+import com.battleship.security.PasswordUtil;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Fachada asíncrona del almacenamiento de jugadores (PlayerRepository): ningún hilo de sesión ni de sala espera a
+ * JDBC. Cada operación devuelve un CompletableFuture.
+ *
+ * Las consultas corren en un pool propio de db-threads hilos (dimensionado
+ * según la base de datos, no según la cantidad de clientes) con una cola de
+ * db-queue tareas. Los hashes BCrypt corren en el pool de CPU que recibe el
+ * constructor. Si alguno de los dos pools está lleno, el futuro termina con
+ * RejectedExecutionException (el servidor responde "ocupado").
+ *
+ * Los resultados de las partidas no se escriben uno por uno: se acumulan en
+ * un GameResultWriter y se guardan en lotes (ver flushResults).
+ */
+public class AsyncPlayerDAO {
+
+    static final int THREADS = Math.max(1, ServerConfig.getInt("db-threads", 8));
+    static final int QUEUE_SIZE = Math.max(1, ServerConfig.getInt("db-queue", 1000));
+    // Cada cuánto se guardan los resultados de partidas pendientes, y cuántos
+    // jugadores distintos pendientes disparan un guardado sin esperar
+    public static final long RESULTS_FLUSH_MS = Math.max(10, ServerConfig.getLong("results-flush-ms", 500));
+    static final int RESULTS_BATCH_SIZE = Math.max(1, ServerConfig.getInt("results-batch-size", 200));
+    // Flushes fallidos (con otros jugadores guardándose bien) antes de descartar un resultado
+    static final int RESULTS_MAX_ATTEMPTS = Math.max(1, ServerConfig.getInt("results-max-attempts", 5));
+
+    private final PlayerRepository dao;
+    private final Executor hashing;
+    private final ThreadPoolExecutor db;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failedMigrations = new LongAdder();
+    private final GameResultWriter results;
+
+    public AsyncPlayerDAO(PlayerRepository dao, Executor hashing) {
+        this.dao = dao;
+        this.hashing = hashing;
+        AtomicInteger count = new AtomicInteger();
+        this.db = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+                    Thread t = new Thread(r, "db-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (task, executor) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Cola de la base de datos llena");
+                });
+        this.results = new GameResultWriter(dao, db, RESULTS_BATCH_SIZE, RESULTS_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Busca al jugador (una consulta) y verifica la contraseña en el pool de
+     * hashing. Las contraseñas viejas en texto plano se migran a BCrypt sin
+     * esperar a que termine la escritura.
+     */
+    public CompletableFuture<LoginResult> login(String username, String password) {
+        return supply(() -> dao.findByUsername(username), db)
+                .thenCompose(player -> player == null
+                        ? CompletableFuture.completedFuture(LoginResult.notFound())
+                        : supply(() -> verify(player, password), hashing));
+    }
+
+    private LoginResult verify(Player player, String password) {
+        String storedPassword = player.getPassword();
+        if (PasswordUtil.isBcryptHash(storedPassword)) {
+            return PasswordUtil.verifyPassword(password, storedPassword)
+                    ? LoginResult.ok(player) : LoginResult.badPassword();
+        }
+        // Password en texto plano: si coincide, migrar a bcrypt
+        if (!storedPassword.equals(password)) {
+            return LoginResult.badPassword();
+        }
+        String hashedPassword = PasswordUtil.hashPassword(password);
+        run(() -> dao.updatePassword(player.getId(), hashedPassword)).whenComplete((ignored, error) -> {
+            if (error == null) return;
+            // El login ya se aceptó; se reintenta en el próximo login
+            failedMigrations.increment();
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            System.err.println("[AsyncPlayerDAO] No se pudo migrar la contraseña de " + player.getUsername() + ": " + cause);
+        });
+        return LoginResult.ok(player);
+    }
+
+    /**
+     * Calcula el hash en el pool de hashing e inserta al jugador.
+     * @return el jugador nuevo, o null si el usuario ya existe
+     */
+    public CompletableFuture<Player> register(String username, String password, String nombre, String apellido, String avatar) {
+        return supply(() -> PasswordUtil.hashPassword(password), hashing)
+                .thenCompose(hashedPassword -> supply(() -> dao.insert(username, hashedPassword, nombre, apellido, avatar), db));
+    }
+
+    /**
+     * Encola el resultado de una partida; se guarda en el próximo lote.
+     */
+    public void registrarResultado(String username, boolean won) {
+        results.record(username, won);
+    }
+
+    /**
+     * Guarda en el pool de la BD los resultados pendientes. El servidor lo
+     * llama cada RESULTS_FLUSH_MS.
+     */
+    public void flushResults() {
+        results.flushAsync();
+    }
+
+    /**
+     * Corre una tarea de mantenimiento del almacenamiento (por ejemplo un
+     * force() del archivo) en el pool de la BD, para no bloquear al que la
+     * programa. Si el pool está lleno se omite: el que la programa la repite.
+     */
+    public void runMaintenance(Runnable task) {
+        try {
+            db.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[AsyncPlayerDAO] Error en mantenimiento del almacenamiento: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Cola de la BD llena: se intenta en el próximo intervalo
+        }
+    }
+
+    /**
+     * Guarda lo pendiente en este hilo y cierra la conexión a la BD (al apagar).
+     */
+    public void close() {
+        results.close();
+        db.shutdown();
+        dao.close();
+    }
+
+    // --- Estado del pool (para el monitor) ---
+
+    public int getActiveCount() { return db.getActiveCount(); }
+    public int getQueueSize() { return db.getQueue().size(); }
+    public long getRejectedCount() { return rejected.sum(); }
+    public long getFailedMigrations() { return failedMigrations.sum(); }
+    public int getPendingResults() { return results.getPending(); }
+    public long getFailedResultFlushes() { return results.getFailures(); }
+    public long getDroppedResults() { return results.getDropped(); }
+
+    // --- Helpers ---
+
+    private CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        }, db);
+    }
+
+    // Como supplyAsync, pero un pool lleno da un futuro fallido en vez de una excepción
+    private static <T> CompletableFuture<T> supply(Supplier<T> work, Executor executor) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
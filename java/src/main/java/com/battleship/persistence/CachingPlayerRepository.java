@@ -0,0 +1,169 @@
+package com.battleship.persistence;
+
+import com.battleship.model.Player;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caché de perfiles de jugador delante de otro PlayerRepository (PostgreSQL).
+ *
+ * Guarda hasta maxSize jugadores por usuario, con desalojo LRU, y cada entrada
+ * vence a los ttlMs (acota lo desactualizada que puede quedar si otro servidor
+ * escribe en la misma BD). Se llena al buscar (LOGIN) y al registrar; las
+ * escrituras pasan primero por el almacenamiento y después actualizan la caché
+ * (write-through), así una reconexión o un login repetido no consultan la BD.
+ *
+ * Una búsqueda que fue a la BD solo guarda su resultado si no hubo escrituras
+ * mientras tanto; si no, podría pisar la caché con datos viejos.
+ */
+public class CachingPlayerRepository implements PlayerRepository {
+
+    private final PlayerRepository delegate;
+    private final int maxSize;
+    private final long ttlMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation = 0; // Aumenta con cada escritura (solo con el lock)
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Entry {
+        final Player player;
+        final long expiresAt;
+
+        Entry(Player player, long expiresAt) {
+            this.player = player;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public CachingPlayerRepository(PlayerRepository delegate, int maxSize, long ttlMs) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlMs = ttlMs;
+    }
+
+    @Override
+    public Player findByUsername(String username) {
+        long loadGeneration;
+        lock.lock();
+        try {
+            Entry entry = entries.get(username);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits.increment();
+                    return InMemoryPlayerRepository.copy(entry.player);
+                }
+                entries.remove(username);
+                evictions.increment();
+            }
+            misses.increment();
+            loadGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        Player player = delegate.findByUsername(username);
+        if (player != null) {
+            lock.lock();
+            try {
+                if (generation == loadGeneration) {
+                    put(player);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return player;
+    }
+
+    @Override
+    public Player insert(String username, String hashedPassword, String nombre, String apellido, String avatar) {
+        Player player = delegate.insert(username, hashedPassword, nombre, apellido, avatar);
+        if (player != null) {
+            lock.lock();
+            try {
+                generation++;
+                put(player);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return player;
+    }
+
+    @Override
+    public void updatePassword(Long playerId, String hashedPassword) {
+        delegate.updatePassword(playerId, hashedPassword);
+        lock.lock();
+        try {
+            generation++;
+            for (Entry entry : entries.values()) {
+                if (playerId.equals(entry.player.getId())) {
+                    entry.player.setPassword(hashedPassword);
+                    break;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyResults(Collection<StatsDelta> batch) {
+        delegate.applyResults(batch);
+        lock.lock();
+        try {
+            generation++;
+            for (StatsDelta delta : batch) {
+                Entry entry = entries.get(delta.getUsername());
+                if (entry != null) {
+                    entry.player.setVictorias(entry.player.getVictorias() + delta.getVictorias());
+                    entry.player.setDerrotas(entry.player.getDerrotas() + delta.getDerrotas());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    // Con el lock tomado
+    private void put(Player player) {
+        entries.put(player.getUsername(), new Entry(InMemoryPlayerRepository.copy(player), System.currentTimeMillis() + ttlMs));
+        // Desalojar los menos usados (el iterador recorre del más viejo al más nuevo)
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // --- Contadores (para el monitor) ---
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+
+    public int getSize() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
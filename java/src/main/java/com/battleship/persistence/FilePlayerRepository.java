@@ -0,0 +1,122 @@
+package com.battleship.persistence;
+
+import com.battleship.model.Player;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Jugadores en un archivo local, para un único servidor sin PostgreSQL.
+ *
+ * Los datos viven en memoria (InMemoryPlayerRepository) y después de cada
+ * cambio se reescribe el archivo completo: primero a un temporal, que se
+ * sincroniza a disco y reemplaza al original con un rename atómico. Así un
+ * corte a mitad de escritura deja la versión anterior. Los resultados de las
+ * partidas llegan en lotes (GameResultWriter), no se escribe por cada disparo.
+ *
+ * Formato: una línea por jugador con los campos separados por tabulador
+ * (id, usuario, hash, nombre, apellido, avatar, victorias, derrotas, rol).
+ */
+public class FilePlayerRepository extends InMemoryPlayerRepository {
+
+    private static final String HEADER = "# jugadores v1";
+
+    private final Path file;
+    private final Path temp;
+
+    public FilePlayerRepository(Path file) {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        load();
+    }
+
+    private void load() {
+        if (!Files.exists(file)) {
+            System.out.println("[FilePlayerRepository] " + file + " no existe, se creará al registrar el primer jugador");
+            return;
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (String line : lines) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                Player player = parse(line);
+                players.put(player.getUsername(), player);
+                nextId = Math.max(nextId, player.getId() + 1);
+            }
+            System.out.println("[FilePlayerRepository] " + players.size() + " jugadores cargados de " + file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer " + file, e);
+        }
+    }
+
+    @Override
+    protected void changed() {
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                out.write(HEADER);
+                out.newLine();
+                for (Player player : players.values()) {
+                    out.write(format(player));
+                    out.newLine();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Sin el archivo el cambio no es durable: que falle la operación
+            throw new UncheckedIOException("No se pudo guardar " + file, e);
+        }
+    }
+
+    private static String format(Player p) {
+        return p.getId() + "\t" + escape(p.getUsername()) + "\t" + escape(p.getPassword())
+                + "\t" + escape(p.getNombre()) + "\t" + escape(p.getApellido()) + "\t" + escape(p.getAvatar())
+                + "\t" + p.getVictorias() + "\t" + p.getDerrotas() + "\t" + escape(p.getRole());
+    }
+
+    private static Player parse(String line) {
+        String[] f = line.split("\t", -1);
+        if (f.length != 9) {
+            throw new IllegalStateException("Línea inválida en el archivo de jugadores: " + line);
+        }
+        Player p = new Player(unescape(f[1]), unescape(f[2]));
+        p.setId(Long.parseLong(f[0]));
+        p.setNombre(unescape(f[3]));
+        p.setApellido(unescape(f[4]));
+        p.setAvatar(unescape(f[5]));
+        p.setVictorias(Integer.parseInt(f[6]));
+        p.setDerrotas(Integer.parseInt(f[7]));
+        p.setRole(unescape(f[8]));
+        return p;
+    }
+
+    // Tabuladores y saltos de línea no pueden aparecer tal cual dentro de un campo
+    private static String escape(String value) {
+        if (value == null) return "";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char n = value.charAt(++i);
+                sb.append(n == 't' ? '\t' : n == 'n' ? '\n' : n == 'r' ? '\r' : n);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
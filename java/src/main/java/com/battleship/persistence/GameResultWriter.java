@@ -0,0 +1,182 @@
+package com.battleship.persistence;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritura diferida (write-behind) de los resultados de las partidas.
+ *
+ * record() solo suma el resultado en memoria, agrupado por jugador. flush()
+ * guarda todo lo pendiente con PlayerRepository.applyResults: una transacción con un
+ * lote JDBC de UPDATE victorias = victorias + ?, así dos partidas del mismo
+ * jugador que terminan a la vez no se pisan (antes era leer, sumar y escribir).
+ *
+ * Si el lote falla se prueba jugador por jugador, para que un resultado
+ * imposible de guardar (cuenta borrada, restricción) no frene a los demás.
+ * Si no se guarda ninguno se asume que la base no está disponible y todo vuelve
+ * a la cola sin contar intentos. Si otros sí se guardaron, el que falló
+ * suma un intento y tras maxAttempts se descarta (ver getDropped). close() hace
+ * un último flush en el hilo que apaga el servidor para no perder lo que
+ * quedaba pendiente.
+ */
+final class GameResultWriter {
+
+    private final PlayerRepository dao;
+    private final Executor executor;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, StatsDelta> pending = new LinkedHashMap<>();
+    // Un solo flush a la vez; close() espera al que esté en curso
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    GameResultWriter(PlayerRepository dao, Executor executor, int batchSize, int maxAttempts) {
+        this.dao = dao;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    void record(String username, boolean won) {
+        if (username == null) return; // La sesión ya no tiene jugador (no hay a quién sumarle)
+        int size;
+        lock.lock();
+        try {
+            pending.computeIfAbsent(username, StatsDelta::new).add(won ? 1 : 0, won ? 0 : 1);
+            size = pending.size();
+        } finally {
+            lock.unlock();
+        }
+        if (size >= batchSize) {
+            flushAsync();
+        }
+    }
+
+    /**
+     * Programa un flush en el executor si hay algo pendiente y no hay otro programado.
+     */
+    void flushAsync() {
+        if (getPending() == 0 || !flushScheduled.compareAndSet(false, true)) return;
+        try {
+            executor.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            flushScheduled.set(false); // Pool lleno: se reintenta en el próximo intervalo
+        }
+    }
+
+    /**
+     * Guarda todo lo pendiente en el hilo que llama.
+     */
+    void flush() {
+        flushLock.lock();
+        try {
+            List<StatsDelta> batch;
+            lock.lock();
+            try {
+                if (pending.isEmpty()) return;
+                batch = new ArrayList<>(pending.values());
+                pending = new LinkedHashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            try {
+                dao.applyResults(batch);
+            } catch (RuntimeException e) {
+                failures.increment();
+                System.err.println("[GameResultWriter] No se pudieron guardar " + batch.size()
+                        + " resultados juntos, se prueban de a uno: " + e.getMessage());
+                applyOneByOne(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Aísla el lote fallido: cada jugador en su propia transacción
+    private void applyOneByOne(List<StatsDelta> batch) {
+        List<StatsDelta> failed = new ArrayList<>();
+        RuntimeException lastError = null;
+        for (StatsDelta delta : batch) {
+            try {
+                dao.applyResults(List.of(delta));
+            } catch (RuntimeException e) {
+                failed.add(delta);
+                lastError = e;
+            }
+        }
+        if (failed.isEmpty()) return;
+        // Si nada se pudo guardar la falla es de la base, no de estos jugadores
+        boolean countAttempts = failed.size() < batch.size();
+        List<StatsDelta> retry = new ArrayList<>(failed.size());
+        for (StatsDelta delta : failed) {
+            if (countAttempts && ++delta.attempts >= maxAttempts) {
+                dropped.increment();
+                System.err.println("[GameResultWriter] Se descarta el resultado de " + delta.getUsername()
+                        + " (+" + delta.getVictorias() + "/+" + delta.getDerrotas() + ") tras "
+                        + delta.attempts + " intentos: " + lastError.getMessage());
+            } else {
+                retry.add(delta);
+            }
+        }
+        if (!retry.isEmpty()) {
+            System.err.println("[GameResultWriter] " + retry.size() + " resultados se reintentarán: " + lastError.getMessage());
+            requeue(retry);
+        }
+    }
+
+    // Devuelve resultados fallidos a la cola, sumados a lo que llegó mientras tanto
+    private void requeue(List<StatsDelta> batch) {
+        lock.lock();
+        try {
+            for (StatsDelta delta : batch) {
+                StatsDelta queued = pending.computeIfAbsent(delta.getUsername(), StatsDelta::new);
+                queued.add(delta.getVictorias(), delta.getDerrotas());
+                queued.attempts = Math.max(queued.attempts, delta.attempts);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Último flush al apagar el servidor.
+     */
+    void close() {
+        flush();
+        int left = getPending();
+        if (left > 0) {
+            System.err.println("[GameResultWriter] Quedaron " + left + " resultados sin guardar");
+        }
+    }
+
+    int getPending() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,121 @@
+package com.battleship.persistence;
+
+import com.battleship.model.Player;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Jugadores en memoria, sin base de datos. Se pierde todo al apagar el
+ * servidor: sirve para pruebas de carga y para medir el rendimiento del juego
+ * sin que PostgreSQL sea el cuello de botella.
+ *
+ * Se devuelven copias de los jugadores, así nadie modifica el estado guardado
+ * fuera del lock.
+ */
+public class InMemoryPlayerRepository implements PlayerRepository {
+
+    protected final ReentrantLock lock = new ReentrantLock();
+    protected final Map<String, Player> players = new HashMap<>();
+    protected long nextId = 1;
+
+    @Override
+    public Player findByUsername(String username) {
+        lock.lock();
+        try {
+            Player player = players.get(username);
+            return player != null ? copy(player) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Player insert(String username, String hashedPassword, String nombre, String apellido, String avatar) {
+        lock.lock();
+        try {
+            if (players.containsKey(username)) {
+                return null;
+            }
+            // Mismos valores por defecto que PlayerDAO
+            Player nuevo = new Player(username, hashedPassword);
+            nuevo.setId(nextId++);
+            nuevo.setNombre(nombre != null && !nombre.trim().isEmpty() ? nombre : "Jugador");
+            nuevo.setApellido(apellido != null && !apellido.trim().isEmpty() ? apellido : "");
+            nuevo.setAvatar(avatar != null && !avatar.trim().isEmpty() ? avatar : "default");
+            players.put(username, nuevo);
+            try {
+                changed();
+            } catch (RuntimeException e) {
+                players.remove(username);
+                throw e;
+            }
+            return copy(nuevo);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updatePassword(Long playerId, String hashedPassword) {
+        lock.lock();
+        try {
+            for (Player player : players.values()) {
+                if (player.getId().equals(playerId)) {
+                    player.setPassword(hashedPassword);
+                    changed();
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyResults(Collection<StatsDelta> batch) {
+        lock.lock();
+        try {
+            add(batch, 1);
+            try {
+                changed();
+            } catch (RuntimeException e) {
+                add(batch, -1); // Todo o nada: GameResultWriter reintenta el lote completo
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void add(Collection<StatsDelta> batch, int sign) {
+        for (StatsDelta delta : batch) {
+            Player player = players.get(delta.getUsername());
+            if (player != null) {
+                player.setVictorias(player.getVictorias() + sign * delta.getVictorias());
+                player.setDerrotas(player.getDerrotas() + sign * delta.getDerrotas());
+            }
+        }
+    }
+
+    /**
+     * Se llama con el lock tomado después de cada cambio. FilePlayerRepository
+     * lo usa para guardar el archivo; si lanza una excepción el cambio se deshace.
+     */
+    protected void changed() {
+    }
+
+    protected static Player copy(Player player) {
+        Player copy = new Player(player.getUsername(), player.getPassword());
+        copy.setId(player.getId());
+        copy.setNombre(player.getNombre());
+        copy.setApellido(player.getApellido());
+        copy.setAvatar(player.getAvatar());
+        copy.setVictorias(player.getVictorias());
+        copy.setDerrotas(player.getDerrotas());
+        copy.setRole(player.getRole());
+        return copy;
+    }
+}
@@ -0,0 +1,42 @@
+package com.battleship.persistence;
+
+import com.battleship.model.Player;
+
+/**
+ * Resultado de AsyncPlayerDAO.login: el jugador si las credenciales son
+ * correctas, o el motivo del rechazo. Sale de una sola consulta
+ * (PlayerRepository.findByUsername), así el servidor elige el mensaje de error
+ * sin volver a preguntar si el usuario existe.
+ */
+public final class LoginResult {
+
+    public enum Status { OK, NOT_FOUND, BAD_PASSWORD }
+
+    private static final LoginResult NOT_FOUND = new LoginResult(Status.NOT_FOUND, null);
+    private static final LoginResult BAD_PASSWORD = new LoginResult(Status.BAD_PASSWORD, null);
+
+    private final Status status;
+    private final Player player;
+
+    private LoginResult(Status status, Player player) {
+        this.status = status;
+        this.player = player;
+    }
+
+    public static LoginResult ok(Player player) {
+        return new LoginResult(Status.OK, player);
+    }
+
+    public static LoginResult notFound() {
+        return NOT_FOUND;
+    }
+
+    public static LoginResult badPassword() {
+        return BAD_PASSWORD;
+    }
+
+    public Status getStatus() { return status; }
+    public boolean isOk() { return status == Status.OK; }
+    // Solo con status OK; null en los demás casos
+    public Player getPlayer() { return player; }
+}
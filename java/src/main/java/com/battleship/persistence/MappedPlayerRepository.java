@@ -0,0 +1,355 @@
+package com.battleship.persistence;
+
+import com.battleship.config.ServerConfig;
+import com.battleship.model.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Jugadores en un archivo mapeado en memoria (FileChannel.map), para un único
+ * servidor sin PostgreSQL.
+ *
+ * El archivo es una cabecera seguida de registros de tamaño fijo, uno por
+ * jugador, que solo se agregan al final. Un índice en memoria con
+ * direccionamiento abierto (hash del usuario -> número de registro) ubica al
+ * jugador sin recorrer el archivo. Sumar victorias y derrotas es escribir dos
+ * enteros en la memoria mapeada; el sistema operativo lleva las páginas a
+ * disco y force() se llama como mucho cada storage-force-ms, también cuando no
+ * llegan más lotes (ver forceIfDirty). Los registros nuevos y los cambios de
+ * contraseña se sincronizan enseguida.
+ *
+ * Un registro nuevo se escribe y se sincroniza completo antes de incrementar
+ * el contador de la cabecera, así un corte a mitad de escritura no deja un
+ * jugador a medias.
+ * Para pasar los datos a PostgreSQL ver PlayerStoreTool.
+ */
+public class MappedPlayerRepository implements PlayerRepository {
+
+    // Cabecera: marca, versión, tamaño de registro, cantidad de registros
+    static final int MAGIC = 0x42535053; // "BSPS"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int OFF_MAGIC = 0;
+    static final int OFF_VERSION = 4;
+    static final int OFF_RECORD_SIZE = 8;
+    static final int OFF_COUNT = 12;
+
+    // Registro: campos fijos y luego textos (longitud de 2 bytes + UTF-8)
+    static final int RECORD_SIZE = 768;
+    private static final int R_ID = 0;
+    private static final int R_USERNAME_HASH = 8;
+    private static final int R_VICTORIAS = 16;
+    private static final int R_DERROTAS = 20;
+    private static final int R_ROLE = 24;          // 0 = PLAYER, 1 = ADMIN
+    private static final int R_USERNAME = 32;      // hasta 62 bytes
+    private static final int R_PASSWORD = 96;      // hasta 94 bytes (hash BCrypt: 60)
+    private static final int R_NOMBRE = 192;       // hasta 202 bytes (50 caracteres)
+    private static final int R_APELLIDO = 396;     // hasta 202 bytes
+    private static final int R_AVATAR = 600;       // hasta 166 bytes
+    private static final int[] TEXT_CAPACITY = {62, 94, 202, 202, 166};
+
+    private static final int INITIAL_CAPACITY = 1024;
+    public static final long FORCE_MS = Math.max(0, ServerConfig.getLong("storage-force-ms", 1000));
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private MappedByteBuffer buffer;
+    private int capacity; // Registros que caben en la zona mapeada
+    private int count;
+    private long nextId = 1;
+    private long lastForce = System.currentTimeMillis();
+    private boolean dirty = false;
+
+    // Índice: slots[i] = número de registro + 1 (0 = libre), hashes[i] = hash del usuario
+    private int[] slots;
+    private long[] hashes;
+
+    public MappedPlayerRepository(Path file) {
+        this.file = file;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            if (size == 0) {
+                map(INITIAL_CAPACITY);
+                buffer.putInt(OFF_MAGIC, MAGIC);
+                buffer.putInt(OFF_VERSION, VERSION);
+                buffer.putInt(OFF_RECORD_SIZE, RECORD_SIZE);
+                buffer.putInt(OFF_COUNT, 0);
+                buffer.force();
+            } else {
+                map(Math.max(INITIAL_CAPACITY, (int) ((size - HEADER_SIZE) / RECORD_SIZE)));
+                checkHeader(buffer, file);
+                count = buffer.getInt(OFF_COUNT);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir " + file, e);
+        }
+        buildIndex();
+        System.out.println("[MappedPlayerRepository] " + count + " jugadores en " + file);
+    }
+
+    static void checkHeader(ByteBuffer header, Path file) {
+        if (header.getInt(OFF_MAGIC) != MAGIC || header.getInt(OFF_VERSION) != VERSION
+                || header.getInt(OFF_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IllegalStateException(file + " no es un archivo de jugadores válido");
+        }
+    }
+
+    private void map(int records) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+        capacity = records;
+    }
+
+    private void buildIndex() {
+        int tableSize = Integer.highestOneBit(Math.max(16, count * 2)) * 2;
+        slots = new int[tableSize];
+        hashes = new long[tableSize];
+        for (int record = 0; record < count; record++) {
+            int base = offset(record);
+            indexPut(buffer.getLong(base + R_USERNAME_HASH), record);
+            nextId = Math.max(nextId, buffer.getLong(base + R_ID) + 1);
+        }
+    }
+
+    // --- PlayerRepository ---
+
+    @Override
+    public Player findByUsername(String username) {
+        lock.lock();
+        try {
+            int record = indexGet(username);
+            return record < 0 ? null : read(record);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Player insert(String username, String hashedPassword, String nombre, String apellido, String avatar) {
+        lock.lock();
+        try {
+            if (indexGet(username) >= 0) {
+                return null;
+            }
+            if (count == capacity) {
+                map(capacity * 2);
+            }
+            // Mismos valores por defecto que PlayerDAO
+            Player nuevo = new Player(username, hashedPassword);
+            nuevo.setId(nextId++);
+            nuevo.setNombre(nombre != null && !nombre.trim().isEmpty() ? nombre : "Jugador");
+            nuevo.setApellido(apellido != null && !apellido.trim().isEmpty() ? apellido : "");
+            nuevo.setAvatar(avatar != null && !avatar.trim().isEmpty() ? avatar : "default");
+
+            int record = count;
+            write(record, nuevo);
+            // El registro tiene que estar en disco antes que el contador que lo incluye
+            buffer.force();
+            buffer.putInt(OFF_COUNT, ++count);
+            buffer.force();
+            indexPut(hash(username), record);
+            return nuevo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo agrandar " + file, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void updatePassword(Long playerId, String hashedPassword) {
+        lock.lock();
+        try {
+            for (int record = 0; record < count; record++) {
+                if (buffer.getLong(offset(record) + R_ID) == playerId) {
+                    putText(offset(record) + R_PASSWORD, TEXT_CAPACITY[1], hashedPassword);
+                    buffer.force();
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void applyResults(Collection<StatsDelta> batch) {
+        lock.lock();
+        try {
+            for (StatsDelta delta : batch) {
+                if (delta.getUsername() == null) continue; // Sin jugador: no hay registro que sumar
+                int record = indexGet(delta.getUsername());
+                if (record < 0) continue;
+                int base = offset(record);
+                buffer.putInt(base + R_VICTORIAS, buffer.getInt(base + R_VICTORIAS) + delta.getVictorias());
+                buffer.putInt(base + R_DERROTAS, buffer.getInt(base + R_DERROTAS) + delta.getDerrotas());
+            }
+            dirty = true;
+            long now = System.currentTimeMillis();
+            if (now - lastForce >= FORCE_MS) {
+                buffer.force();
+                lastForce = now;
+                dirty = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza los resultados que quedaron sin force(), para que el último
+     * lote no espere hasta el siguiente o hasta close(). El servidor lo
+     * programa cada storage-force-ms en el pool de la BD (bloquea en el disco).
+     */
+    public void forceIfDirty() {
+        lock.lock();
+        try {
+            if (!dirty) return;
+            buffer.force();
+            lastForce = System.currentTimeMillis();
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (dirty) buffer.force();
+            dirty = false;
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[MappedPlayerRepository] Error cerrando " + file + ": " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recorre todos los jugadores en orden de registro (para exportar).
+     */
+    void forEach(Consumer<Player> action) {
+        lock.lock();
+        try {
+            for (int record = 0; record < count; record++) {
+                action.accept(read(record));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // --- Registros ---
+
+    private static int offset(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private Player read(int record) {
+        int base = offset(record);
+        Player p = new Player(getText(base + R_USERNAME), getText(base + R_PASSWORD));
+        p.setId(buffer.getLong(base + R_ID));
+        p.setVictorias(buffer.getInt(base + R_VICTORIAS));
+        p.setDerrotas(buffer.getInt(base + R_DERROTAS));
+        p.setRole(buffer.get(base + R_ROLE) == 1 ? "ADMIN" : "PLAYER");
+        p.setNombre(getText(base + R_NOMBRE));
+        p.setApellido(getText(base + R_APELLIDO));
+        p.setAvatar(getText(base + R_AVATAR));
+        return p;
+    }
+
+    private void write(int record, Player p) {
+        int base = offset(record);
+        // Validar los textos antes de escribir nada
+        String[] texts = {p.getUsername(), p.getPassword(), p.getNombre(), p.getApellido(), p.getAvatar()};
+        int[] offsets = {R_USERNAME, R_PASSWORD, R_NOMBRE, R_APELLIDO, R_AVATAR};
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i].getBytes(StandardCharsets.UTF_8).length > TEXT_CAPACITY[i]) {
+                throw new IllegalArgumentException("Campo demasiado largo para el archivo de jugadores: " + texts[i]);
+            }
+        }
+        buffer.putLong(base + R_ID, p.getId());
+        buffer.putLong(base + R_USERNAME_HASH, hash(p.getUsername()));
+        buffer.putInt(base + R_VICTORIAS, p.getVictorias());
+        buffer.putInt(base + R_DERROTAS, p.getDerrotas());
+        buffer.put(base + R_ROLE, (byte) (p.isAdmin() ? 1 : 0));
+        for (int i = 0; i < texts.length; i++) {
+            putText(base + offsets[i], TEXT_CAPACITY[i], texts[i]);
+        }
+    }
+
+    private void putText(int position, int capacity, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > capacity) {
+            throw new IllegalArgumentException("Campo demasiado largo para el archivo de jugadores");
+        }
+        buffer.putShort(position, (short) bytes.length);
+        buffer.put(position + 2, bytes);
+    }
+
+    private String getText(int position) {
+        byte[] bytes = new byte[buffer.getShort(position)];
+        buffer.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Índice (direccionamiento abierto, sondeo lineal) ---
+
+    private int indexGet(String username) {
+        long h = hash(username);
+        int mask = slots.length - 1;
+        for (int i = (int) h & mask; slots[i] != 0; i = (i + 1) & mask) {
+            // Dos usuarios pueden compartir hash: se confirma con el nombre guardado
+            if (hashes[i] == h && getText(offset(slots[i] - 1) + R_USERNAME).equals(username)) {
+                return slots[i] - 1;
+            }
+        }
+        return -1;
+    }
+
+    private void indexPut(long h, int record) {
+        if ((count + 1) * 2 > slots.length) {
+            int[] oldSlots = slots;
+            long[] oldHashes = hashes;
+            slots = new int[oldSlots.length * 2];
+            hashes = new long[oldSlots.length * 2];
+            for (int i = 0; i < oldSlots.length; i++) {
+                if (oldSlots[i] != 0) insertSlot(oldHashes[i], oldSlots[i]);
+            }
+        }
+        insertSlot(h, record + 1);
+    }
+
+    private void insertSlot(long h, int slot) {
+        int mask = slots.length - 1;
+        int i = (int) h & mask;
+        while (slots[i] != 0) i = (i + 1) & mask;
+        slots[i] = slot;
+        hashes[i] = h;
+    }
+
+    // FNV-1a de 64 bits sobre el usuario en UTF-8, mezclado para repartir los bits bajos
+    static long hash(String username) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return h ^ (h >>> 32);
+    }
+}
@@ -1,29 +1,60 @@
 package com.battleship.persistence;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Maneja la creación de EntityManagerFactory con variables de entorno
  * Soporta tanto Docker (variables de entorno) como desarrollo local (valores por defecto)
+ *
+ * Las conexiones salen de un pool HikariCP (no del pool de pruebas de
+ * Hibernate), configurado con las variables DB_POOL_* y DB_STATEMENT_CACHE.
+ * Sus métricas se leen en PoolMetrics.
  */
 public class PersistenceManager {
 
-    private static EntityManagerFactory emf;
+    private static volatile EntityManagerFactory emf;
+    private static HikariDataSource dataSource;
+    // La creación abre conexiones JDBC: con ReentrantLock no se fija el hilo
+    // portador si quien la dispara es un hilo virtual
+    private static final ReentrantLock lock = new ReentrantLock();
 
     public static EntityManagerFactory getEntityManagerFactory() {
         if (emf == null) {
-            synchronized (PersistenceManager.class) {
+            lock.lock();
+            try {
                 if (emf == null) {
                     emf = createEntityManagerFactory();
                 }
+            } finally {
+                lock.unlock();
             }
         }
         return emf;
     }
 
+    /**
+     * Crea el EntityManagerFactory (si no existe) y hace una consulta trivial.
+     * El servidor lo llama al arrancar para no enterarse de que la BD está
+     * caída recién con el primer LOGIN.
+     * @throws RuntimeException si no se puede conectar
+     */
+    public static void checkConnection() {
+        EntityManager em = getEntityManagerFactory().createEntityManager();
+        try {
+            em.createNativeQuery("SELECT 1").getSingleResult();
+        } finally {
+            em.close();
+        }
+    }
+
     private static EntityManagerFactory createEntityManagerFactory() {
         Map<String, Object> properties = new HashMap<>();
 
@@ -34,15 +65,58 @@ public class PersistenceManager {
 
         System.out.println("[PersistenceManager] Conectando a BD: " + dbUrl);
 
-        properties.put("javax.persistence.jdbc.driver", "org.postgresql.Driver");
-        properties.put("javax.persistence.jdbc.url", dbUrl);
-        properties.put("javax.persistence.jdbc.user", dbUser);
-        properties.put("javax.persistence.jdbc.password", dbPassword);
+        dataSource = createDataSource(dbUrl, dbUser, dbPassword);
+        PoolMetrics.attach(dataSource.getHikariPoolMXBean());
+
+        properties.put("hibernate.connection.datasource", dataSource);
         properties.put("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect");
         properties.put("hibernate.hbm2ddl.auto", "update");
-        properties.put("hibernate.show_sql", "true");
+        // Imprimir cada consulta satura la salida del servidor: solo para depurar
+        properties.put("hibernate.show_sql", getEnv("DB_SHOW_SQL", "false"));
+
+        try {
+            return Persistence.createEntityManagerFactory("battleshipPU", properties);
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+    }
 
-        return Persistence.createEntityManagerFactory("battleshipPU", properties);
+    private static HikariDataSource createDataSource(String dbUrl, String dbUser, String dbPassword) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("battleship-db");
+        config.setDriverClassName("org.postgresql.Driver");
+        config.setJdbcUrl(dbUrl);
+        config.setUsername(dbUser);
+        config.setPassword(dbPassword);
+
+        // Tamaño: por encima de db-threads no sirve de nada (nadie más usa la BD)
+        config.setMaximumPoolSize(getIntEnv("DB_POOL_MAX", 10));
+        config.setMinimumIdle(getIntEnv("DB_POOL_MIN_IDLE", 2));
+        config.setConnectionTimeout(getIntEnv("DB_POOL_TIMEOUT_MS", 5_000));
+        config.setIdleTimeout(getIntEnv("DB_POOL_IDLE_TIMEOUT_MS", 600_000));
+        config.setMaxLifetime(getIntEnv("DB_POOL_MAX_LIFETIME_MS", 1_800_000));
+        // Validación: Connection.isValid() al prestar una conexión que estuvo inactiva
+        config.setValidationTimeout(getIntEnv("DB_POOL_VALIDATION_TIMEOUT_MS", 3_000));
+        // Aviso en el log si una conexión no vuelve al pool en este tiempo (0 = desactivado)
+        config.setLeakDetectionThreshold(getIntEnv("DB_POOL_LEAK_DETECTION_MS", 10_000));
+
+        // Caché de sentencias preparadas del driver de PostgreSQL, por conexión
+        config.addDataSourceProperty("preparedStatementCacheQueries", getIntEnv("DB_STATEMENT_CACHE", 256));
+        config.addDataSourceProperty("prepareThreshold", 1);
+
+        config.setMetricsTrackerFactory(PoolMetrics.TRACKER);
+        return new HikariDataSource(config);
+    }
+
+    private static int getIntEnv(String key, int defaultValue) {
+        String value = getEnv(key, String.valueOf(defaultValue));
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.out.println("[PersistenceManager] Valor inválido para " + key + ": " + value + ", usando " + defaultValue);
+            return defaultValue;
+        }
     }
 
     private static String getEnv(String key, String defaultValue) {
@@ -58,5 +132,8 @@ public class PersistenceManager {
         if (emf != null && emf.isOpen()) {
             emf.close();
         }
+        if (dataSource != null) {
+            dataSource.close();
+        }
     }
 }
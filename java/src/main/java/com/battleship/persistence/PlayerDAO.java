@@ -1,79 +1,64 @@
 package com.battleship.persistence;
 
 import com.battleship.model.Player;
-import com.battleship.security.PasswordUtil;
+import org.hibernate.Session;
+
 import javax.persistence.*;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
 
-public class PlayerDAO {
-    // Usa PersistenceManager para leer variables de entorno
-    private static EntityManagerFactory emf = PersistenceManager.getEntityManagerFactory();
+/**
+ * Almacenamiento en PostgreSQL con JPA (cada método abre su EntityManager).
+ * El servidor no lo llama directamente: usa AsyncPlayerDAO, que ejecuta estos
+ * métodos en su propio pool y calcula los hashes de contraseñas aparte.
+ */
+public class PlayerDAO implements PlayerRepository {
+    // Usa PersistenceManager para leer variables de entorno.
+    // Se obtiene bajo demanda (no en el inicializador estático) para que la
+    // conexión a la BD no ocurra dentro del lock de inicialización de la clase,
+    // que fijaría el hilo portador de un hilo virtual.
+    private static EntityManagerFactory emf() {
+        return PersistenceManager.getEntityManagerFactory();
+    }
 
     /**
-     * Login method - authenticates user without auto-registration
-     * Supports automatic migration from plain-text to bcrypt passwords
+     * Find a player by username (single query)
      * @param username The username
-     * @param password The plain-text password
-     * @return Player object if authentication succeeds, null otherwise
+     * @return The Player, or null if the username does not exist
      */
-    public Player login(String username, String password) {
-        EntityManager em = emf.createEntityManager();
+    @Override
+    public Player findByUsername(String username) {
+        EntityManager em = emf().createEntityManager();
         try {
-            // 1. Buscar si el usuario existe
-            try {
-                Player p = em.createQuery("SELECT p FROM Player p WHERE p.username = :user", Player.class)
-                             .setParameter("user", username)
-                             .getSingleResult();
-
-                // 2. Verificar contraseña (con soporte de migración)
-                String storedPassword = p.getPassword();
-
-                if (PasswordUtil.isBcryptHash(storedPassword)) {
-                    // Password ya está hasheado - verificar con bcrypt
-                    if (PasswordUtil.verifyPassword(password, storedPassword)) {
-                        return p;
-                    } else {
-                        return null; // Contraseña incorrecta
-                    }
-                } else {
-                    // Password está en texto plano - migrar automáticamente
-                    if (storedPassword.equals(password)) {
-                        // Password correcta - hashear y actualizar
-                        migratePasswordToHash(p.getId(), password);
-                        return p;
-                    } else {
-                        return null; // Contraseña incorrecta
-                    }
-                }
-            } catch (NoResultException e) {
-                // Usuario no existe
-                return null;
-            }
+            return em.createQuery("SELECT p FROM Player p WHERE p.username = :user", Player.class)
+                     .setParameter("user", username)
+                     .getSingleResult();
+        } catch (NoResultException e) {
+            return null;
         } finally {
             em.close();
         }
     }
 
     /**
-     * Register a new user with all profile information
+     * Insert a new player with all profile information
+     * Single insert: a taken username is detected by the unique constraint,
+     * so two concurrent registrations cannot both succeed
      * @param username The username (must be unique)
-     * @param password The plain-text password (will be hashed)
+     * @param hashedPassword The password already hashed with bcrypt (see PasswordUtil)
      * @param nombre First name (optional)
      * @param apellido Last name (optional)
      * @param avatar Avatar identifier
      * @return The newly created Player object, or null if username already exists
+     * @throws PersistenceException if the insert fails for any other reason
      */
-    public Player register(String username, String password, String nombre, String apellido, String avatar) {
-        if (usernameExists(username)) {
-            return null; // Username already taken
-        }
-
-        EntityManager em = emf.createEntityManager();
+    @Override
+    public Player insert(String username, String hashedPassword, String nombre, String apellido, String avatar) {
+        EntityManager em = emf().createEntityManager();
         try {
             em.getTransaction().begin();
 
-            // Hash password before storing
-            String hashedPassword = PasswordUtil.hashPassword(password);
-
             // Create player with all fields
             Player nuevo = new Player(username, hashedPassword);
             nuevo.setNombre(nombre != null && !nombre.trim().isEmpty() ? nombre : "Jugador");
@@ -83,47 +68,45 @@ public class PlayerDAO {
             em.persist(nuevo);
             em.getTransaction().commit();
             return nuevo;
-        } catch (Exception e) {
+        } catch (PersistenceException e) {
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback();
             }
-            e.printStackTrace();
-            return null;
+            if (isUniqueViolation(e)) {
+                return null; // Username already taken
+            }
+            throw e;
         } finally {
             em.close();
         }
     }
 
     /**
-     * Check if a username already exists
-     * @param username The username to check
-     * @return true if exists, false otherwise
+     * True if the failure comes from a unique constraint (SQLState 23505,
+     * unique_violation in PostgreSQL)
      */
-    public boolean usernameExists(String username) {
-        EntityManager em = emf.createEntityManager();
-        try {
-            Long count = em.createQuery("SELECT COUNT(p) FROM Player p WHERE p.username = :user", Long.class)
-                           .setParameter("user", username)
-                           .getSingleResult();
-            return count > 0;
-        } finally {
-            em.close();
+    private static boolean isUniqueViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && "23505".equals(((SQLException) cause).getSQLState())) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
-     * Migrate a plain-text password to bcrypt hash
-     * Used for automatic migration during login
+     * Replace a player's password with its bcrypt hash
+     * Used for automatic migration of plain-text passwords during login
      * @param playerId The player's ID
-     * @param plainPassword The plain-text password to hash
+     * @param hashedPassword The new bcrypt hash
      */
-    private void migratePasswordToHash(Long playerId, String plainPassword) {
-        EntityManager em = emf.createEntityManager();
+    @Override
+    public void updatePassword(Long playerId, String hashedPassword) {
+        EntityManager em = emf().createEntityManager();
         try {
             em.getTransaction().begin();
             Player p = em.find(Player.class, playerId);
             if (p != null) {
-                String hashedPassword = PasswordUtil.hashPassword(plainPassword);
                 p.setPassword(hashedPassword);
             }
             em.getTransaction().commit();
@@ -136,32 +119,45 @@ public class PlayerDAO {
             em.close();
         }
     }
-    
-    public void registrarVictoria(String username) {
-        actualizarStat(username, true);
-    }
-    
-    public void registrarDerrota(String username) {
-        actualizarStat(username, false);
-    }
 
-    private void actualizarStat(String username, boolean esVictoria) {
-        EntityManager em = emf.createEntityManager();
+    /**
+     * Add the pending results to the players' stats in one transaction
+     * One JDBC batch of atomic increments (no read-modify-write), so results
+     * of concurrent games of the same player are never lost
+     * @param batch Wins and losses to add, at most one entry per username
+     * @throws PersistenceException if the batch fails (nothing is applied)
+     */
+    @Override
+    public void applyResults(Collection<StatsDelta> batch) {
+        if (batch.isEmpty()) return;
+        EntityManager em = emf().createEntityManager();
         try {
             em.getTransaction().begin();
-            Player p = em.createQuery("SELECT p FROM Player p WHERE p.username = :user", Player.class)
-                         .setParameter("user", username)
-                         .getSingleResult();
-            
-            if (esVictoria) p.setVictorias(p.getVictorias() + 1);
-            else p.setDerrotas(p.getDerrotas() + 1);
-            
+            em.unwrap(Session.class).doWork(connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(
+                        "UPDATE jugadores SET victorias = victorias + ?, derrotas = derrotas + ? WHERE username = ?")) {
+                    for (StatsDelta delta : batch) {
+                        ps.setInt(1, delta.getVictorias());
+                        ps.setInt(2, delta.getDerrotas());
+                        ps.setString(3, delta.getUsername());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+            });
             em.getTransaction().commit();
-        } catch (Exception e) {
-            if(em.getTransaction().isActive()) em.getTransaction().rollback();
-            e.printStackTrace();
+        } catch (RuntimeException e) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw e;
         } finally {
             em.close();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public void close() {
+        PersistenceManager.close();
+    }
+}
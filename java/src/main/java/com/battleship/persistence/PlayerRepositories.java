@@ -0,0 +1,65 @@
+package com.battleship.persistence;
+
+import com.battleship.config.ServerConfig;
+
+import java.nio.file.Paths;
+
+/**
+ * Elige el almacenamiento de jugadores según la opción storage:
+ * jpa (PostgreSQL, por defecto), file (archivo de texto storage-file),
+ * mapped (archivo mapeado en memoria storage-file) o memory.
+ *
+ * PostgreSQL va detrás de una caché de perfiles (profile-cache-size jugadores,
+ * profile-cache-ttl-ms); los demás almacenamientos ya están en memoria.
+ */
+public final class PlayerRepositories {
+
+    public static final String STORAGE_JPA = "jpa";
+    public static final String STORAGE_FILE = "file";
+    public static final String STORAGE_MAPPED = "mapped";
+    public static final String STORAGE_MEMORY = "memory";
+
+    private PlayerRepositories() {
+    }
+
+    /**
+     * true si el almacenamiento elegido es PostgreSQL (también cuando el valor
+     * de storage no se reconoce).
+     */
+    public static boolean usesDatabase() {
+        String storage = ServerConfig.getString("storage", STORAGE_JPA).toLowerCase();
+        return !storage.equals(STORAGE_FILE) && !storage.equals(STORAGE_MAPPED) && !storage.equals(STORAGE_MEMORY);
+    }
+
+    public static PlayerRepository create() {
+        String storage = ServerConfig.getString("storage", STORAGE_JPA).toLowerCase();
+        switch (storage) {
+            case STORAGE_FILE:
+                String file = ServerConfig.getString("storage-file", "jugadores.dat");
+                System.out.println("[PlayerRepositories] Almacenamiento: archivo " + file);
+                return new FilePlayerRepository(Paths.get(file));
+            case STORAGE_MAPPED:
+                String mapped = ServerConfig.getString("storage-file", "jugadores.map");
+                System.out.println("[PlayerRepositories] Almacenamiento: archivo mapeado " + mapped);
+                return new MappedPlayerRepository(Paths.get(mapped));
+            case STORAGE_MEMORY:
+                System.out.println("[PlayerRepositories] Almacenamiento: memoria (los datos se pierden al apagar)");
+                return new InMemoryPlayerRepository();
+            case STORAGE_JPA:
+                System.out.println("[PlayerRepositories] Almacenamiento: PostgreSQL (JPA)");
+                return withCache(new PlayerDAO());
+            default:
+                System.out.println("[PlayerRepositories] Almacenamiento desconocido: " + storage + ", usando " + STORAGE_JPA);
+                return withCache(new PlayerDAO());
+        }
+    }
+
+    private static PlayerRepository withCache(PlayerRepository repository) {
+        int size = ServerConfig.getInt("profile-cache-size", 10_000);
+        long ttlMs = ServerConfig.getLong("profile-cache-ttl-ms", 300_000);
+        if (size <= 0 || ttlMs <= 0) {
+            return repository;
+        }
+        return new CachingPlayerRepository(repository, size, ttlMs);
+    }
+}
@@ -1,7 +1,43 @@
 package com.battleship.persistence;
 
+import com.battleship.model.Player;
+
+import java.util.Collection;
+
+/**
+ * Almacenamiento de jugadores del servidor. Las operaciones son bloqueantes;
+ * el servidor no las llama directamente sino a través de AsyncPlayerDAO, que
+ * las ejecuta en el pool de la BD.
+ *
+ * Implementaciones (se elige con la opción storage, ver PlayerRepositories):
+ * - PlayerDAO: JPA sobre PostgreSQL (por defecto)
+ * - FilePlayerRepository: archivo local, para un solo servidor sin BD
+ * - InMemoryPlayerRepository: en memoria, para pruebas de carga
+ */
 public interface PlayerRepository {
-    // Métodos para JPA/Postgres
-    boolean authenticate(String user, String pass);
-    void updateStats(String user, boolean won);
-}
\ No newline at end of file
+
+    /**
+     * @return el jugador, o null si no existe
+     */
+    Player findByUsername(String username);
+
+    /**
+     * Crea un jugador con la contraseña ya hasheada.
+     * @return el jugador nuevo, o null si el usuario ya existe
+     */
+    Player insert(String username, String hashedPassword, String nombre, String apellido, String avatar);
+
+    void updatePassword(Long playerId, String hashedPassword);
+
+    /**
+     * Suma victorias y derrotas (un elemento por jugador) de forma atómica:
+     * se aplica todo el lote o nada.
+     */
+    void applyResults(Collection<StatsDelta> batch);
+
+    /**
+     * Libera los recursos (conexiones, archivos) al apagar el servidor.
+     */
+    default void close() {
+    }
+}
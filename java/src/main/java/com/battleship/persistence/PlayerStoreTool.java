@@ -0,0 +1,95 @@
+package com.battleship.persistence;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Herramienta de línea de comandos para el archivo de MappedPlayerRepository.
+ * Usar con el servidor detenido.
+ *
+ *   export archivo [salida.sql]  Genera un volcado para PostgreSQL (COPY) con
+ *                                todos los jugadores; sin salida usa stdout.
+ *                                Se carga con: psql -d battleship_db -f salida.sql
+ *   compact archivo              Recorta el espacio reservado sin usar al final
+ *                                del archivo (crece de a bloques).
+ */
+public class PlayerStoreTool {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("export")) {
+            export(Paths.get(args[1]), args.length >= 3 ? Paths.get(args[2]) : null);
+        } else if (args.length == 2 && args[0].equals("compact")) {
+            compact(Paths.get(args[1]));
+        } else {
+            System.err.println("Uso: PlayerStoreTool export archivo [salida.sql] | compact archivo");
+            System.exit(2);
+        }
+    }
+
+    private static void export(Path file, Path output) throws IOException {
+        if (!Files.exists(file)) {
+            throw new IOException(file + " no existe");
+        }
+        // El volcado puede ir a stdout: los mensajes de registro van a stderr
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+        PrintWriter out = output == null
+                ? new PrintWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8))
+                : new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8));
+        MappedPlayerRepository store = new MappedPlayerRepository(file);
+        int[] exported = {0};
+        try {
+            // Misma tabla que crea Hibernate para Player (hbm2ddl=update)
+            out.println("BEGIN;");
+            out.println("COPY jugadores (id, username, password, nombre, apellido, avatar, victorias, derrotas, role) FROM stdin;");
+            store.forEach(p -> {
+                out.println(p.getId() + "\t" + copyText(p.getUsername()) + "\t" + copyText(p.getPassword())
+                        + "\t" + copyText(p.getNombre()) + "\t" + copyText(p.getApellido())
+                        + "\t" + copyText(p.getAvatar()) + "\t" + p.getVictorias() + "\t" + p.getDerrotas()
+                        + "\t" + copyText(p.getRole()));
+                exported[0]++;
+            });
+            out.println("\\.");
+            // Los ids vienen del archivo: la secuencia debe seguir después del mayor
+            out.println("SELECT setval(pg_get_serial_sequence('jugadores', 'id'), COALESCE(MAX(id), 1)) FROM jugadores;");
+            out.println("COMMIT;");
+        } finally {
+            out.flush();
+            if (output != null) out.close();
+            store.close();
+        }
+        System.err.println("[PlayerStoreTool] " + exported[0] + " jugadores exportados"
+                + (output != null ? " a " + output : ""));
+    }
+
+    // Formato de texto de COPY: barra invertida, tabulador y saltos de línea escapados
+    private static String copyText(String value) {
+        if (value == null) return "\\N";
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static void compact(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(MappedPlayerRepository.HEADER_SIZE);
+            if (channel.read(header) < MappedPlayerRepository.HEADER_SIZE) {
+                throw new IOException(file + " no es un archivo de jugadores válido");
+            }
+            MappedPlayerRepository.checkHeader(header, file);
+            int count = header.getInt(MappedPlayerRepository.OFF_COUNT);
+            long before = channel.size();
+            long used = MappedPlayerRepository.HEADER_SIZE + (long) count * MappedPlayerRepository.RECORD_SIZE;
+            channel.truncate(used);
+            channel.force(true);
+            System.err.println("[PlayerStoreTool] " + count + " jugadores, " + before + " -> " + used + " bytes");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.battleship.persistence;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas del pool de conexiones a PostgreSQL (HikariCP) para el monitor.
+ * Valen 0 hasta que PersistenceManager crea el pool (primer acceso a la BD).
+ */
+public final class PoolMetrics {
+
+    private static volatile HikariPoolMXBean pool;
+    private static final LongAdder acquired = new LongAdder();
+    private static final LongAdder waitNanos = new LongAdder();
+    private static final LongAdder timeouts = new LongAdder();
+
+    // Hikari avisa cada vez que entrega una conexión y cuánto se esperó por ella
+    static final MetricsTrackerFactory TRACKER = (poolName, poolStats) -> new IMetricsTracker() {
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+    };
+
+    private PoolMetrics() {
+    }
+
+    static void attach(HikariPoolMXBean bean) {
+        pool = bean;
+    }
+
+    public static long getActive() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getActiveConnections() : 0;
+    }
+
+    public static long getIdle() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getIdleConnections() : 0;
+    }
+
+    // Hilos esperando una conexión libre en este momento
+    public static long getWaiting() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getThreadsAwaitingConnection() : 0;
+    }
+
+    // Espera promedio para obtener una conexión, en microsegundos
+    public static long getAverageWaitMicros() {
+        long count = acquired.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos.sum() / count);
+    }
+
+    // Pedidos que no consiguieron conexión en DB_POOL_TIMEOUT_MS
+    public static long getTimeouts() {
+        return timeouts.sum();
+    }
+}
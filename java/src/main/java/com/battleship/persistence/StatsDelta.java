@@ -0,0 +1,28 @@
+package com.battleship.persistence;
+
+/**
+ * Victorias y derrotas pendientes de guardar para un jugador. GameResultWriter
+ * acumula aquí los resultados de varias partidas y PlayerRepository.applyResults
+ * los suma de una vez por jugador.
+ */
+public final class StatsDelta {
+
+    private final String username;
+    private int victorias;
+    private int derrotas;
+    // Flushes en los que este jugador falló mientras otros se guardaban bien
+    int attempts;
+
+    StatsDelta(String username) {
+        this.username = username;
+    }
+
+    void add(int victorias, int derrotas) {
+        this.victorias += victorias;
+        this.derrotas += derrotas;
+    }
+
+    public String getUsername() { return username; }
+    public int getVictorias() { return victorias; }
+    public int getDerrotas() { return derrotas; }
+}
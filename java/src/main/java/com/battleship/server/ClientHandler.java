@@ -1,48 +1,102 @@
 package com.battleship.server;
 
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.CommandView;
+import com.battleship.common.Message;
+import com.battleship.common.Opcode;
 import com.battleship.common.Protocol;
+import com.battleship.common.TextCommand;
+import com.battleship.config.ServerConfig;
 import com.battleship.game.GameRoom;
 import com.battleship.game.RoomManager;
+import com.battleship.game.RoomTimeouts;
+import com.battleship.model.GameRules;
 import com.battleship.model.Player;
-import com.battleship.persistence.PlayerDAO;
+import com.battleship.persistence.AsyncPlayerDAO;
+import com.battleship.persistence.LoginResult;
 import com.battleship.validation.InputValidator;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 public class ClientHandler implements Runnable {
 
+    // Registrar cada comando recibido (desactivar para no crear un String por mensaje)
+    private static final boolean LOG_COMMANDS = ServerConfig.getBoolean("log-commands", true);
+
+    // Respuestas fijas, codificadas una sola vez para todas las sesiones
+    private static final SharedMessage JOINED_OK = SharedMessage.of(Protocol.JOINED_OK);
+    private static final SharedMessage REGISTER_OK = SharedMessage.of(Protocol.REGISTER_OK);
+    private static final SharedMessage LOGOUT_OK = SharedMessage.of(Protocol.LOGOUT_OK);
+    private static final SharedMessage RATE_LIMITED = SharedMessage.of(Protocol.ERROR, "Demasiadas solicitudes, espera un momento");
+    private static final SharedMessage SERVER_BUSY = SharedMessage.of(Protocol.ERROR, "Servidor ocupado, intenta de nuevo en unos segundos");
+    private static final SharedMessage SERVER_ERROR = SharedMessage.of(Protocol.ERROR, "Error del servidor, intenta de nuevo");
+
+    // Acceso a BD compartido por todas las sesiones (lo crea ServerMain): las
+    // consultas van al pool de la base de datos y el BCrypt a HashingPool,
+    // nunca al hilo de la sesión
+    private final AsyncPlayerDAO players;
+
     private Socket socket;
-    private PrintWriter out;
-    private BufferedReader in;
+    private Connection connection;
+    // Se reutiliza para cada línea de texto (los comandos de una sesión se procesan de a uno)
+    private final TextCommand textCommand;
 
     // Identidad y Estado
     private String playerName;
     private boolean isMonitor = false; // Identifica si es el admin 
     private GameRoom currentRoom;
-
-    // Dependencias
-    private PlayerDAO playerDAO;
-
-    public ClientHandler(Socket socket) {
+    private boolean binary = false; // Tramas binarias negociadas con HELLO
+
+    // LOGIN y REGISTER terminan en el ejecutor de la sesión (ver
+    // Connection.sessionExecutor). Mientras tanto los comandos siguientes
+    // esperan en orden en deferred. El lock ordena el estado de la sesión
+    // entre el hilo de lectura y el que completa el login.
+    private final ReentrantLock sessionLock = new ReentrantLock();
+    private final ArrayDeque<Message> deferred = new ArrayDeque<>();
+    private boolean authPending = false;
+    private boolean disconnected = false;
+
+    // Latido (ver Heartbeat): los lee el hilo del scheduler
+    private volatile long lastInboundMillis = Heartbeat.now();
+    private volatile boolean heartbeatCapable = false; // Respondió PONG o negoció HELLO
+    private volatile long rttMillis = -1;              // Último tiempo de ida y vuelta medido
+
+    public ClientHandler(Socket socket, AsyncPlayerDAO players) {
         this.socket = socket;
-        this.playerDAO = new PlayerDAO(); // Instancia para acceso a BD
+        this.players = players;
+        this.textCommand = new TextCommand(StandardCharsets.UTF_8); // Mismo charset que el cliente
+    }
+
+    /**
+     * Sesión sobre una conexión ya establecida (modo NIO).
+     * La lectura la hace el event loop, que llama a processLine por cada línea.
+     */
+    public ClientHandler(Connection connection, AsyncPlayerDAO players) {
+        this.connection = connection;
+        this.players = players;
+        this.textCommand = new TextCommand(StandardCharsets.UTF_8);
+        Heartbeat.register(this);
     }
 
     @Override
     public void run() {
         try {
-            // Configurar streams de texto
-            out = new PrintWriter(socket.getOutputStream(), true);
-            in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            // Configurar streams (texto hasta que el cliente pida binario con HELLO)
+            SocketConnection socketConnection = new SocketConnection(socket);
+            connection = socketConnection;
+            Heartbeat.register(this);
 
-            String inputLine;
             // Bucle principal de lectura
-            while ((inputLine = in.readLine()) != null) {
-                processMessage(inputLine);
+            while (socketConnection.dispatchNext(this)) {
+                // Cada vuelta procesa un comando
             }
 
         } catch (IOException e) {
@@ -54,100 +108,213 @@ public class ClientHandler implements Runnable {
     }
 
     /**
-     * Procesa los comandos recibidos según el Protocolo definido.
+     * Procesa una línea del protocolo de texto directamente desde los bytes
+     * leídos (sin split ni Strings intermedios para los comandos numéricos).
      */
-    private void processMessage(String message) {
-        System.out.println("Recibido [" + (playerName != null ? playerName : "Anon") + "]: " + message);
+    void processLine(byte[] data, int offset, int length) {
+        processMessage(textCommand.reset(data, offset, length));
+    }
 
-        // Separa comando y argumentos. Ej: "LOGIN:Pepe:123" -> ["LOGIN", "Pepe", "123"]
-        String[] parts = message.split(":");
-        String command = parts[0];
+    /**
+     * Procesa los comandos recibidos según el Protocolo definido
+     * (llegan igual en texto o en tramas binarias).
+     */
+    void processMessage(CommandView message) {
+        lastInboundMillis = Heartbeat.now();
+        // Límite por IP y por usuario antes de cualquier trabajo (BD, BCrypt, logs)
+        if (!RateLimiter.allow(message, connection.getRemoteHost(), playerName)) {
+            sendMessage(RATE_LIMITED);
+            return;
+        }
+        sessionLock.lock();
+        try {
+            if (authPending) {
+                // Se procesa cuando termine el LOGIN/REGISTER en curso
+                deferred.add(Message.copyOf(message));
+            } else {
+                dispatch(message);
+            }
+        } finally {
+            sessionLock.unlock();
+        }
+    }
 
-        switch (command) {
-            case Protocol.LOGIN:
-                handleLogin(parts);
+    // Ejecuta un comando (con sessionLock tomado)
+    private void dispatch(CommandView message) {
+        if (LOG_COMMANDS && message.getOpcode() != Opcode.PONG) {
+            System.out.println("Recibido [" + (playerName != null ? playerName : "Anon") + "]: " + message);
+        }
+
+        // Argumentos sin el comando. Ej: "LOGIN:Pepe:123" -> get(0)="Pepe", get(1)="123"
+        switch (message.getOpcode()) {
+            case Opcode.HELLO: // HELLO:versión:BIN
+                handleHello(message);
+                break;
+
+            case Opcode.LOGIN:
+                handleLogin(message);
                 break;
 
-            case Protocol.REGISTER:
-                handleRegister(parts);
+            case Opcode.REGISTER:
+                handleRegister(message);
                 break;
 
-            case Protocol.LOGOUT:
+            case Opcode.LOGOUT:
                 handleLogout();
                 break;
 
-            case Protocol.CREATE_ROOM:
+            case Opcode.CREATE_ROOM: // CREATE_ROOM o CREATE_ROOM:filas:columnas:tamaños[:segundos_por_turno]
                 if (checkAuth()) {
-                    currentRoom = RoomManager.getInstance().createRoom(this);
+                    GameRules rules = GameRules.DEFAULT;
+                    RoomTimeouts timeouts = RoomTimeouts.DEFAULT;
+                    if (message.size() >= 3) {
+                        try {
+                            rules = GameRules.parse(message.get(0), message.get(1), message.get(2));
+                            if (message.size() >= 4) {
+                                timeouts = timeouts.withTurnSeconds(message.get(3));
+                            }
+                        } catch (IllegalArgumentException e) {
+                            sendError(e.getMessage());
+                            break;
+                        }
+                    }
+                    currentRoom = RoomManager.getInstance().createRoom(this, rules, timeouts);
                     if (currentRoom != null) {
+                        RoomManager.getInstance().unsubscribeLobby(this); // Sale del lobby
                         sendMessage("ROOM_CREATED:" + currentRoom.getRoomId());
 
                         // IMPORTANTE: El creador de la sala ya está en la sala desde el constructor
                         // El estado inicial es WAITING y se notifica automáticamente
                         // Esto permite que Player2 pueda unirse después
                     } else {
-                        sendMessage(Protocol.ERROR + ":Límite de salas alcanzado");
+                        sendError("Límite de salas alcanzado");
                     }
                 }
                 break;
 
-            case Protocol.JOIN_ROOM: // JOIN_ROOM:Sala-1
-                if (checkAuth() && parts.length > 1) {
-                    boolean joined = RoomManager.getInstance().joinRoom(parts[1], this);
+            case Opcode.JOIN_ROOM: // JOIN_ROOM:Sala-1
+                if (checkAuth() && message.size() > 0) {
+                    String roomId = message.get(0);
+                    boolean joined = RoomManager.getInstance().joinRoom(roomId, this);
                     if (joined) {
-                        sendMessage("JOINED_OK");
+                        RoomManager.getInstance().unsubscribeLobby(this); // Sale del lobby
+                        sendMessage(JOINED_OK);
                         // currentRoom se asigna dentro del joinRoom o se busca después
-                        this.currentRoom = RoomManager.getInstance().getRoomById(parts[1]);
+                        this.currentRoom = RoomManager.getInstance().getRoomById(roomId);
                     } else {
-                        sendMessage(Protocol.ERROR + ":Sala llena o no existe");
+                        sendError("Sala llena o no existe");
                     }
                 }
                 break;
 
-            case Protocol.LIST_ROOMS:
+            case Opcode.LIST_ROOMS:
                 if (checkAuth()) {
                     String list = RoomManager.getInstance().getRoomListString();
                     sendMessage(Protocol.ROOM_LIST + ":" + list);
                 }
                 break;
 
-            case Protocol.PLACE_SHIPS: // PLACE_SHIPS:1,1,0;2,2,1... (Coordenadas complejas)
-                if (currentRoom != null && parts.length > 1) {
+            case Opcode.LOBBY_SUBSCRIBE:
+                if (checkAuth()) {
+                    RoomManager.getInstance().subscribeLobby(this);
+                }
+                break;
+
+            case Opcode.LOBBY_UNSUBSCRIBE:
+                RoomManager.getInstance().unsubscribeLobby(this);
+                break;
+
+            case Opcode.PLACE_SHIPS: // PLACE_SHIPS:1,1,0;2,2,1... (Coordenadas complejas)
+                if (currentRoom != null && message.size() > 0) {
                     // Pasamos la cadena de datos cruda a la sala para que ella la procese
-                    currentRoom.placeShips(this, parts[1]);
+                    currentRoom.placeShips(this, message.get(0));
                 }
                 break;
 
-            case Protocol.SHOOT: // SHOOT:3:5
-                if (currentRoom != null && parts.length > 2) {
+            case Opcode.SHOOT: // SHOOT:3:5
+                if (currentRoom != null && message.size() > 1) {
                     try {
-                        int row = Integer.parseInt(parts[1]);
-                        int col = Integer.parseInt(parts[2]);
+                        int row = message.getInt(0);
+                        int col = message.getInt(1);
                         currentRoom.processShot(this, row, col);
                     } catch (NumberFormatException e) {
-                        sendMessage(Protocol.ERROR + ":Coordenadas inválidas");
+                        sendError("Coordenadas inválidas");
                     }
                 }
                 break;
 
+            case Opcode.PING: // PING:marca -> PONG:marca
+                sendMessage(Message.of(Protocol.PONG, message.size() > 0 ? message.get(0) : ""));
+                break;
+
+            case Opcode.PONG: // PONG:marca (respuesta a nuestro PING)
+                handlePong(message);
+                break;
+
+            case Opcode.MONITOR_RESYNC:
+                if (isMonitor) {
+                    RoomManager.getInstance().resyncMonitor(this);
+                }
+                break;
+
             default:
-                sendMessage(Protocol.ERROR + ":Comando desconocido");
+                sendError("Comando desconocido");
                 break;
         }
     }
 
+    /**
+     * Negocia el formato de los mensajes. Los clientes que no envían HELLO
+     * siguen usando el protocolo de texto.
+     */
+    private void handleHello(CommandView hello) {
+        boolean wantsBinary = hello.size() > 1 && BinaryCodec.FORMAT_BINARY.equals(hello.get(1));
+        int version;
+        try {
+            version = hello.size() > 0 ? hello.getInt(0) : 0;
+        } catch (NumberFormatException e) {
+            version = 0;
+        }
+
+        if (wantsBinary && version >= BinaryCodec.VERSION && !binary) {
+            binary = true;
+            heartbeatCapable = true; // Los clientes que negocian HELLO responden PING
+            connection.switchToBinary(Protocol.HELLO_OK + ":" + BinaryCodec.FORMAT_BINARY);
+        } else if (binary) {
+            sendMessage(Protocol.HELLO_OK + ":" + BinaryCodec.FORMAT_BINARY);
+        } else {
+            sendMessage(Protocol.HELLO_OK + ":" + BinaryCodec.FORMAT_TEXT);
+        }
+    }
+
+    private void handlePong(CommandView pong) {
+        heartbeatCapable = true;
+        if (pong.size() == 0) return;
+        try {
+            long rtt = Heartbeat.now() - Long.parseLong(pong.get(0));
+            if (rtt >= 0) {
+                rttMillis = rtt;
+                if (currentRoom != null) {
+                    RoomManager.getInstance().roomChanged(currentRoom); // El monitor muestra la latencia
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Marca ajena: solo cuenta como actividad
+        }
+    }
+
     /**
      * Maneja la autenticación contra PostgreSQL usando el DAO.
      */
-    private void handleLogin(String[] parts) {
+    private void handleLogin(CommandView message) {
         // Protocolo esperado: LOGIN:usuario:password
-        if (parts.length < 3) {
-            sendMessage(Protocol.ERROR + ":Faltan datos de login");
+        if (message.size() < 2) {
+            sendError("Faltan datos de login");
             return;
         }
 
-        String user = parts[1];
-        String pass = parts[2];
+        String user = message.get(0);
+        String pass = message.get(1);
 
         // Caso Admin (Monitor) - Verificar en BD si tiene rol ADMIN
         if (user.equalsIgnoreCase("ADMIN") && pass.equals("admin123")) {
@@ -159,10 +326,14 @@ public class ClientHandler implements Runnable {
             return;
         }
 
-        // Caso Jugador Normal o Admin con BD
-        Player player = playerDAO.login(user, pass);
+        // Caso Jugador Normal o Admin con BD: la consulta va al pool de la BD y
+        // el BCrypt al de contraseñas; la respuesta se envía al terminar
+        runAuth(players.login(user, pass), this::completeLogin);
+    }
 
-        if (player != null) {
+    private void completeLogin(LoginResult result) {
+        if (result.isOk()) {
+            Player player = result.getPlayer();
             this.playerName = player.getUsername();
 
             // Verificar si es ADMIN
@@ -174,13 +345,10 @@ public class ClientHandler implements Runnable {
                 // Jugador normal
                 sendMessage(Protocol.LOGIN_OK + ":" + player.getVictorias() + ":" + player.getDerrotas());
             }
+        } else if (result.getStatus() == LoginResult.Status.BAD_PASSWORD) {
+            sendError("Contraseña incorrecta");
         } else {
-            // Verificar si el usuario existe para dar mensaje apropiado
-            if (playerDAO.usernameExists(user)) {
-                sendMessage(Protocol.ERROR + ":Contraseña incorrecta");
-            } else {
-                sendMessage(Protocol.ERROR + ":Usuario no existe");
-            }
+            sendError("Usuario no existe");
         }
     }
 
@@ -188,51 +356,85 @@ public class ClientHandler implements Runnable {
      * Maneja el registro de nuevos usuarios
      * Protocolo: REGISTER:username:password:nombre:apellido:avatar
      */
-    private void handleRegister(String[] parts) {
-        if (parts.length < 6) {
-            sendMessage(Protocol.ERROR + ":Faltan datos de registro");
+    private void handleRegister(CommandView message) {
+        if (message.size() < 5) {
+            sendError("Faltan datos de registro");
             return;
         }
 
-        String username = parts[1];
-        String password = parts[2];
-        String nombre = parts[3];
-        String apellido = parts[4];
-        String avatar = parts[5];
+        String username = message.get(0);
+        String password = message.get(1);
+        String nombre = message.get(2);
+        String apellido = message.get(3);
+        String avatar = message.get(4);
 
         // Validación del lado del servidor
         InputValidator.ValidationResult usernameValidation = InputValidator.validateUsername(username);
         if (!usernameValidation.isValid()) {
-            sendMessage(Protocol.ERROR + ":" + usernameValidation.getErrorMessage());
+            sendError(usernameValidation.getErrorMessage());
             return;
         }
 
         InputValidator.ValidationResult passwordValidation = InputValidator.validatePassword(password);
         if (!passwordValidation.isValid()) {
-            sendMessage(Protocol.ERROR + ":" + passwordValidation.getErrorMessage());
+            sendError(passwordValidation.getErrorMessage());
             return;
         }
 
         InputValidator.ValidationResult nombreValidation = InputValidator.validateName(nombre);
         if (!nombreValidation.isValid()) {
-            sendMessage(Protocol.ERROR + ":" + nombreValidation.getErrorMessage());
+            sendError(nombreValidation.getErrorMessage());
             return;
         }
 
         InputValidator.ValidationResult apellidoValidation = InputValidator.validateName(apellido);
         if (!apellidoValidation.isValid()) {
-            sendMessage(Protocol.ERROR + ":" + apellidoValidation.getErrorMessage());
+            sendError(apellidoValidation.getErrorMessage());
             return;
         }
 
-        // Intentar registrar
-        Player newPlayer = playerDAO.register(username, password, nombre, apellido, avatar);
+        // Intentar registrar (el hash de la contraseña se calcula en el pool)
+        runAuth(players.register(username, password, nombre, apellido, avatar), newPlayer -> {
+            if (newPlayer != null) {
+                sendMessage(REGISTER_OK);
+            } else {
+                sendError("Usuario ya existe");
+            }
+        });
+    }
 
-        if (newPlayer != null) {
-            sendMessage(Protocol.REGISTER_OK);
-        } else {
-            sendMessage(Protocol.ERROR + ":Usuario ya existe");
-        }
+    /**
+     * Espera el resultado de LOGIN o REGISTER sin bloquear este hilo.
+     * Los comandos que lleguen mientras tanto quedan en espera y se procesan
+     * en orden después de onResult. Si algún pool estaba lleno se responde
+     * "servidor ocupado".
+     */
+    private <T> void runAuth(CompletableFuture<T> result, Consumer<T> onResult) {
+        authPending = true;
+        // Termina en el ejecutor de la sesión, no en el hilo de hashing o de la BD
+        result.whenCompleteAsync((value, error) -> {
+            sessionLock.lock();
+            try {
+                if (disconnected) return;
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                if (cause instanceof RejectedExecutionException) {
+                    sendMessage(SERVER_BUSY);
+                } else if (cause != null) {
+                    System.err.println("[ClientHandler] Error autenticando: " + cause.getMessage());
+                    sendMessage(SERVER_ERROR);
+                } else {
+                    onResult.accept(value);
+                }
+                authPending = false;
+                // Comandos que llegaron mientras tanto (pueden volver a esperar)
+                Message next;
+                while (!authPending && (next = deferred.poll()) != null) {
+                    dispatch(next);
+                }
+            } finally {
+                sessionLock.unlock();
+            }
+        }, connection.sessionExecutor());
     }
 
     /**
@@ -243,12 +445,18 @@ public class ClientHandler implements Runnable {
             System.out.println("Logout de usuario: " + playerName);
         }
 
-        // Limpiar sesión
+        // Limpiar sesión. Salir de la sala igual que al desconectarse: si no,
+        // la partida seguiría con un jugador sin nombre
+        RoomManager.getInstance().unsubscribeLobby(this);
+        if (currentRoom != null) {
+            currentRoom.handlePlayerDisconnect(this);
+            currentRoom = null;
+        }
         playerName = null;
         isMonitor = false;
 
         // Enviar confirmación
-        sendMessage(Protocol.LOGOUT_OK);
+        sendMessage(LOGOUT_OK);
 
         // No cerrar socket aquí - dejar que el cliente lo cierre
     }
@@ -257,17 +465,30 @@ public class ClientHandler implements Runnable {
      * Limpieza robusta cuando el cliente se desconecta. Evita que las salas
      * queden "zombies".
      */
-    private void handleDisconnect() {
+    void handleDisconnect() {
+        sessionLock.lock();
+        try {
+            disconnected = true; // Un LOGIN que termine después ya no tiene a quién responder
+            deferred.clear();
+        } finally {
+            sessionLock.unlock();
+        }
         System.out.println("Cerrando sesión de: " + playerName);
+        Heartbeat.unregister(this);
 
-        try {
-            if (socket != null && !socket.isClosed()) {
-                socket.close();
+        if (connection != null) {
+            connection.close();
+        } else {
+            try {
+                if (socket != null && !socket.isClosed()) {
+                    socket.close();
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
 
+        RoomManager.getInstance().unsubscribeLobby(this);
         if (isMonitor) {
             RoomManager.getInstance().removeMonitor(this);
         } else if (currentRoom != null) {
@@ -278,14 +499,75 @@ public class ClientHandler implements Runnable {
 
     // --- Métodos Auxiliares ---
     public void sendMessage(String msg) {
-        if (out != null) {
-            out.println(msg);
+        if (connection != null) {
+            connection.send(msg);
+        }
+    }
+
+    public void sendMessage(Message msg) {
+        if (connection != null) {
+            connection.send(msg);
+        }
+    }
+
+    /**
+     * ERROR con un texto libre: va como un solo campo, así un ':' dentro del
+     * texto no lo parte en binario.
+     */
+    private void sendError(String text) {
+        sendMessage(Message.of(Protocol.ERROR, text));
+    }
+
+    public void sendMessage(SharedMessage msg) {
+        if (connection != null) {
+            connection.send(msg);
+        }
+    }
+
+    /**
+     * Envía una foto o cambio del monitor. Si el monitor no da abasto estos
+     * mensajes se descartan primero (ver OutboundQueue).
+     */
+    public void sendMonitorUpdate(String msg) {
+        if (connection != null) {
+            connection.sendDroppable(msg);
         }
     }
 
+    // --- Latido (llamados desde Heartbeat) ---
+
+    void sendPing(long timestamp) {
+        sendMessage(Message.of(Protocol.PING, Long.toString(timestamp)));
+    }
+
+    /**
+     * Cierra una conexión que dejó de responder. La limpieza de la sesión y de
+     * la sala la hace handleDisconnect, igual que en una desconexión normal.
+     */
+    void evict() {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    long getLastInboundMillis() {
+        return lastInboundMillis;
+    }
+
+    boolean isHeartbeatCapable() {
+        return heartbeatCapable;
+    }
+
+    /**
+     * @return último tiempo de ida y vuelta medido con PING/PONG, o -1 si todavía no hay
+     */
+    public long getRttMillis() {
+        return rttMillis;
+    }
+
     private boolean checkAuth() {
         if (playerName == null) {
-            sendMessage(Protocol.ERROR + ":Debes hacer LOGIN primero");
+            sendError("Debes hacer LOGIN primero");
             return false;
         }
         return true;
@@ -295,13 +577,10 @@ public class ClientHandler implements Runnable {
         return playerName;
     }
 
-    // Método para actualizar BD al terminar partida (llamado desde GameRoom)
+    // Método para actualizar BD al terminar partida (llamado desde GameRoom).
+    // Solo encola el resultado: se guarda en el próximo lote.
     public void recordGameResult(boolean won) {
-        if (won) {
-            playerDAO.registrarVictoria(playerName);
-        } else {
-            playerDAO.registrarDerrota(playerName);
-        }
+        players.registrarResultado(playerName, won);
     }
 
 }
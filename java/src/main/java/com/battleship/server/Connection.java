@@ -0,0 +1,63 @@
+package com.battleship.server;
+
+import com.battleship.common.Message;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Canal de salida de una sesión de cliente.
+ * Los envíos solo encolan el mensaje y vuelven enseguida; la escritura al
+ * socket la hace el lado de I/O (ver OutboundQueue).
+ * Permite que ClientHandler funcione igual sobre un Socket bloqueante
+ * o sobre un SocketChannel gestionado por el NioServer.
+ */
+public interface Connection {
+
+    /**
+     * Envía una línea de texto (el salto de línea lo agrega la conexión).
+     * En modo binario la línea se parte en ':' para armar la trama: un texto
+     * libre que pueda contener ':' (mensajes de error) va con send(Message).
+     */
+    void send(String line);
+
+    /**
+     * Envía un mensaje en el formato negociado (texto o binario).
+     */
+    void send(Message message);
+
+    /**
+     * Envía un mensaje ya codificado que comparten varios destinatarios.
+     */
+    void send(SharedMessage message);
+
+    /**
+     * Envía una línea que se puede descartar si el cliente no da abasto
+     * (fotos y cambios del monitor, ver OutboundQueue).
+     */
+    void sendDroppable(String line);
+
+    /**
+     * Pasa la conexión a tramas binarias (ver BinaryCodec): desde ya se leen
+     * tramas, se envía la respuesta en texto y después todo sale en binario.
+     */
+    void switchToBinary(String textReply);
+
+    /**
+     * Cierra la conexión. Debe ser idempotente.
+     */
+    void close();
+
+    String getRemoteAddress();
+
+    /**
+     * IP del cliente sin puerto (clave de los límites por dirección, ver RateLimiter).
+     */
+    String getRemoteHost();
+
+    /**
+     * Ejecutor propio de la sesión: corre las tareas de a una y en orden.
+     * Ahí terminan las operaciones asíncronas (LOGIN, REGISTER), para no
+     * ocupar los hilos de hashing o de la base de datos.
+     */
+    Executor sessionExecutor();
+}
@@ -0,0 +1,54 @@
+package com.battleship.server;
+
+import com.battleship.config.ServerConfig;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool acotado para el trabajo de contraseñas (LOGIN y REGISTER). Un BCrypt
+ * de costo 12 son cientos de ms de CPU: con pocos hilos y una cola corta, una
+ * avalancha de logins (por ejemplo todos los clientes reconectando después de
+ * reiniciar el servidor) no deja sin CPU a las salas ni a los event loops.
+ *
+ * Si la cola está llena el trabajo no se acepta (RejectedExecutionException)
+ * y el cliente recibe al instante un "servidor ocupado" en vez de esperar.
+ */
+final class HashingPool {
+
+    static final int THREADS = Math.max(1, ServerConfig.getInt("bcrypt-threads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    static final int QUEUE_SIZE = Math.max(1, ServerConfig.getInt("bcrypt-queue", 64));
+
+    private static final ThreadPoolExecutor executor;
+    private static final LongAdder rejected = new LongAdder();
+
+    static {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(THREADS, THREADS, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+                    Thread t = new Thread(r, "bcrypt-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (task, pool) -> {
+                    rejected.increment();
+                    throw new RejectedExecutionException("Cola de BCrypt llena");
+                });
+
+        ServerStats.register("bcrypt.activos", executor::getActiveCount);
+        ServerStats.register("bcrypt.en_cola", () -> executor.getQueue().size());
+        ServerStats.register("bcrypt.rechazados", rejected::sum);
+    }
+
+    private HashingPool() {
+    }
+
+    static Executor executor() {
+        return executor;
+    }
+}
@@ -0,0 +1,71 @@
+package com.battleship.server;
+
+import com.battleship.config.ServerConfig;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latido de las sesiones: PING/PONG a nivel de aplicación y cierre de las
+ * conexiones que dejaron de responder (por ejemplo una conexión TCP medio
+ * abierta después de que el cliente perdió la red).
+ *
+ * No usa un hilo por conexión: una sola tarea de ServerScheduler recorre las
+ * sesiones cada heartbeat-interval-ms. A las que no enviaron nada desde el
+ * último recorrido les envía PING:marca y, si pasan idle-timeout-ms sin
+ * recibir nada, cierra la conexión; la limpieza sigue el camino normal
+ * (handleDisconnect -> GameRoom.handlePlayerDisconnect).
+ *
+ * Solo se cierra por inactividad a las sesiones que demostraron entender PING
+ * (respondieron un PONG o negociaron HELLO). Los clientes de texto viejos no
+ * responden PING; para ellos queda el keepalive de TCP.
+ */
+final class Heartbeat {
+
+    static final long INTERVAL_MS = ServerConfig.getLong("heartbeat-interval-ms", 10_000);
+    static final long IDLE_TIMEOUT_MS = ServerConfig.getLong("idle-timeout-ms", 30_000);
+
+    private static final long START = System.nanoTime();
+    private static final Set<ClientHandler> sessions = ConcurrentHashMap.newKeySet();
+
+    static {
+        if (INTERVAL_MS > 0) {
+            ServerScheduler.scheduleAtFixedRate("heartbeat", Heartbeat::sweep, INTERVAL_MS);
+        }
+    }
+
+    private Heartbeat() {
+    }
+
+    static void register(ClientHandler session) {
+        sessions.add(session);
+    }
+
+    static void unregister(ClientHandler session) {
+        sessions.remove(session);
+    }
+
+    /**
+     * Milisegundos desde que arrancó el servidor (reloj monótono). Es la marca
+     * que viaja en PING y vuelve en PONG para medir el tiempo de ida y vuelta.
+     */
+    static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - START);
+    }
+
+    private static void sweep() {
+        long now = now();
+        for (ClientHandler session : sessions) {
+            long idle = now - session.getLastInboundMillis();
+            if (session.isHeartbeatCapable() && IDLE_TIMEOUT_MS > 0 && idle >= IDLE_TIMEOUT_MS) {
+                System.out.println("[Heartbeat] Sin respuesta de " + session.getPlayerName()
+                        + " en " + idle + " ms, cerrando conexión");
+                sessions.remove(session);
+                session.evict();
+            } else if (idle >= INTERVAL_MS) {
+                session.sendPing(now);
+            }
+        }
+    }
+}
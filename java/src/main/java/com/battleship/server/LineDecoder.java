@@ -0,0 +1,54 @@
+package com.battleship.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Separa líneas terminadas en '\n' a partir de ByteBuffers que llegan por partes.
+ * Guarda los bytes de una línea incompleta hasta que llegue el resto.
+ * Entrega cada línea como bytes (sin el salto de línea) sobre su propio
+ * buffer, sin copiarla; ClientHandler la interpreta sin pasar por String.
+ */
+class LineDecoder {
+
+    /**
+     * Recibe cada línea. Los bytes valen solo durante la llamada: el buffer
+     * se reutiliza para la línea siguiente.
+     */
+    interface LineSink {
+        void line(byte[] data, int length);
+    }
+
+    private final int maxLineLength;
+    private byte[] pending = new byte[256];
+    private int length = 0;
+
+    LineDecoder(int maxLineLength) {
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Consume todos los bytes disponibles en el buffer y entrega cada línea completa.
+     * @throws IOException si una línea supera el tamaño máximo permitido
+     */
+    void decode(ByteBuffer in, LineSink out) throws IOException {
+        while (in.hasRemaining()) {
+            byte b = in.get();
+            if (b == '\n') {
+                int end = length;
+                if (end > 0 && pending[end - 1] == '\r') end--;
+                out.line(pending, end);
+                length = 0;
+            } else {
+                if (length == maxLineLength) {
+                    throw new IOException("Línea demasiado larga (máximo " + maxLineLength + " bytes)");
+                }
+                if (length == pending.length) {
+                    pending = Arrays.copyOf(pending, Math.min(pending.length * 2, maxLineLength));
+                }
+                pending[length++] = b;
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.battleship.server;
+
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.Message;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conexión no bloqueante gestionada por un NioEventLoop.
+ * Las lecturas y escrituras se hacen siempre en el hilo del event loop;
+ * los comandos se despachan a ClientHandler en orden mediante un SerialExecutor.
+ */
+class NioConnection implements Connection {
+
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+    // Líneas libres que se guardan para reutilizar (más allá se descartan)
+    private static final int LINE_POOL_SIZE = 16;
+
+    private final NioEventLoop loop;
+    private final SocketChannel channel;
+    private final String remoteAddress;
+    private final String remoteHost;
+    private final LineDecoder decoder = new LineDecoder(MAX_LINE_LENGTH);
+    private final BinaryCodec.FrameDecoder frameDecoder = new BinaryCodec.FrameDecoder(BinaryCodec.MAX_FRAME);
+    private final SerialExecutor inbound;
+    private final OutboundQueue outbound = new OutboundQueue();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // Formato negociado con HELLO. La entrada cambia antes de responder, así la
+    // primera trama del cliente (que espera el HELLO_OK) ya se lee en binario.
+    private volatile boolean binaryInbound = false;
+    private volatile boolean binaryOutbound = false;
+
+    private SelectionKey key;
+    private ClientHandler handler;
+
+    // Líneas de texto recibidas, recicladas: el event loop copia cada línea
+    // en una InboundLine libre y el hilo que la procesa la devuelve
+    private final ReentrantLock linePoolLock = new ReentrantLock();
+    private final ArrayDeque<InboundLine> linePool = new ArrayDeque<>();
+    private final LineDecoder.LineSink lineSink = this::onLine;
+
+    // Lote que se está escribiendo (solo hilo del event loop)
+    private ByteBuffer[] writing;
+    private int writingIndex;
+
+    NioConnection(NioEventLoop loop, SocketChannel channel, Executor workers) {
+        this.loop = loop;
+        this.channel = channel;
+        this.inbound = new SerialExecutor(workers);
+        String address;
+        String host;
+        try {
+            SocketAddress remote = channel.getRemoteAddress();
+            address = String.valueOf(remote);
+            host = remote instanceof InetSocketAddress
+                    ? ((InetSocketAddress) remote).getAddress().getHostAddress() : address;
+        } catch (IOException e) {
+            address = "desconocida";
+            host = address;
+        }
+        this.remoteAddress = address;
+        this.remoteHost = host;
+    }
+
+    void attach(SelectionKey key, ClientHandler handler) {
+        this.key = key;
+        this.handler = handler;
+    }
+
+    // --- Llamados desde el event loop ---
+
+    void onReadable(ByteBuffer readBuffer) {
+        try {
+            readBuffer.clear();
+            int read = channel.read(readBuffer);
+            if (read < 0) {
+                close();
+                return;
+            }
+            readBuffer.flip();
+            if (binaryInbound) {
+                frameDecoder.decode(readBuffer, message -> inbound.execute(() -> handler.processMessage(message)));
+            } else {
+                decoder.decode(readBuffer, lineSink);
+            }
+        } catch (IOException e) {
+            System.err.println("Error de conexión con " + remoteAddress + ": " + e.getMessage());
+            close();
+        }
+    }
+
+    private void onLine(byte[] data, int length) {
+        InboundLine line;
+        linePoolLock.lock();
+        try {
+            line = linePool.poll();
+        } finally {
+            linePoolLock.unlock();
+        }
+        if (line == null) {
+            line = new InboundLine();
+        }
+        line.set(data, length);
+        inbound.execute(line);
+    }
+
+    private void recycle(InboundLine line) {
+        linePoolLock.lock();
+        try {
+            if (linePool.size() < LINE_POOL_SIZE) linePool.push(line);
+        } finally {
+            linePoolLock.unlock();
+        }
+    }
+
+    /**
+     * Una línea recibida en espera de ser procesada. Es a la vez la tarea del
+     * SerialExecutor, así que no hace falta una lambda por comando.
+     */
+    private final class InboundLine implements Runnable {
+        private byte[] data = new byte[128];
+        private int length;
+
+        void set(byte[] source, int count) {
+            if (data.length < count) data = new byte[count];
+            System.arraycopy(source, 0, data, 0, count);
+            length = count;
+        }
+
+        @Override
+        public void run() {
+            try {
+                handler.processLine(data, 0, length);
+            } finally {
+                recycle(this);
+            }
+        }
+    }
+
+    void onWritable() {
+        flush();
+    }
+
+    private void flush() {
+        if (!key.isValid()) return;
+        try {
+            while (true) {
+                if (writing == null) {
+                    writing = outbound.takeBatch();
+                    writingIndex = 0;
+                    if (writing == null) break;
+                }
+                // Escritura agrupada: todo el lote en una sola llamada
+                long written = channel.write(writing, writingIndex, writing.length - writingIndex);
+                outbound.release((int) written);
+                while (writingIndex < writing.length && !writing[writingIndex].hasRemaining()) {
+                    writingIndex++;
+                }
+                if (writingIndex < writing.length) {
+                    // Socket lleno: esperar a OP_WRITE
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    return;
+                }
+                writing = null;
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            flushScheduled.set(false);
+            // Otro hilo pudo encolar justo después del último lote
+            if (!outbound.isEmpty() && flushScheduled.compareAndSet(false, true)) {
+                loop.execute(this::flush);
+            }
+        } catch (IOException e) {
+            System.err.println("Error escribiendo a " + remoteAddress + ": " + e.getMessage());
+            close();
+        }
+    }
+
+    // --- Connection ---
+
+    @Override
+    public void send(String line) {
+        enqueue(encode(line), false);
+    }
+
+    @Override
+    public void send(Message message) {
+        enqueue(encode(message), false);
+    }
+
+    @Override
+    public void send(SharedMessage message) {
+        enqueue(message.encoded(binaryOutbound), false);
+    }
+
+    @Override
+    public void sendDroppable(String line) {
+        enqueue(encode(line), true);
+    }
+
+    private byte[] encode(String line) {
+        return binaryOutbound
+                ? BinaryCodec.encode(Message.parse(line))
+                : (line + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] encode(Message message) {
+        return binaryOutbound
+                ? BinaryCodec.encode(message)
+                : (message.toText() + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void switchToBinary(String textReply) {
+        binaryInbound = true;
+        send(textReply);
+        binaryOutbound = true;
+    }
+
+    private void enqueue(byte[] bytes, boolean droppable) {
+        if (closed.get()) return;
+        if (!outbound.offer(ByteBuffer.wrap(bytes), droppable)) {
+            System.err.println("[NioConnection] Cliente lento, se desconecta: " + remoteAddress
+                    + " (más de " + OutboundQueue.MAX_BYTES + " bytes pendientes)");
+            close();
+            return;
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            loop.execute(this::flush);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        loop.execute(() -> {
+            if (key != null) key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        // La limpieza de la sesión va detrás de los comandos ya recibidos
+        inbound.execute(handler::handleDisconnect);
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    // La misma cola que los comandos: el resultado se procesa entre dos comandos
+    @Override
+    public Executor sessionExecutor() {
+        return inbound;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteHost;
+    }
+}
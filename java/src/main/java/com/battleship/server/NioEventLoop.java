@@ -0,0 +1,124 @@
+package com.battleship.server;
+
+import com.battleship.persistence.AsyncPlayerDAO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Hilo de E/S con su propio Selector. Atiende lecturas y escrituras de muchas
+ * conexiones a la vez; el trabajo de cada comando se delega al pool de workers.
+ */
+class NioEventLoop implements Runnable, Executor {
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+    private final String name;
+    private final Selector selector;
+    private final Executor workers;
+    private final AsyncPlayerDAO players;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Buffer de lectura compartido por todas las conexiones del loop
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private volatile boolean running = true;
+
+    NioEventLoop(String name, Executor workers, AsyncPlayerDAO players) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.workers = workers;
+        this.players = players;
+    }
+
+    void start() {
+        Thread thread = new Thread(this, name);
+        thread.start();
+    }
+
+    /**
+     * Registra un canal recién aceptado. Se puede llamar desde cualquier hilo.
+     */
+    void register(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        NioConnection connection = new NioConnection(this, channel, workers);
+        ClientHandler handler = new ClientHandler(connection, players);
+        execute(() -> {
+            try {
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ, connection);
+                connection.attach(key, handler);
+            } catch (IOException e) {
+                System.err.println("[" + name + "] No se pudo registrar el canal: " + e.getMessage());
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+            }
+        });
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo del loop (registro, escrituras, cierres).
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+                runTasks();
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    NioConnection connection = (NioConnection) key.attachment();
+                    if (!key.isValid()) continue;
+                    if (key.isReadable()) {
+                        connection.onReadable(readBuffer);
+                    }
+                    if (key.isValid() && key.isWritable()) {
+                        connection.onWritable();
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                System.err.println("[" + name + "] Error en selector: " + e.getMessage());
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("[" + name + "] Error en tarea: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    void shutdown() {
+        running = false;
+        try {
+            selector.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
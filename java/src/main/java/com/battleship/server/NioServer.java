@@ -0,0 +1,77 @@
+package com.battleship.server;
+
+import com.battleship.persistence.AsyncPlayerDAO;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor no bloqueante: un hilo acepta conexiones y las reparte (round-robin)
+ * entre un número fijo de event loops. Los comandos se procesan en un pool de
+ * workers, manteniendo el orden por conexión.
+ */
+public class NioServer {
+
+    private final int port;
+    private final NioEventLoop[] loops;
+    private final ExecutorService workers;
+    private int nextLoop = 0;
+
+    public NioServer(int port, int ioThreads, int workerThreads, AsyncPlayerDAO players) throws IOException {
+        this.port = port;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "nio-worker-" + workerCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.loops = new NioEventLoop[ioThreads];
+        for (int i = 0; i < ioThreads; i++) {
+            loops[i] = new NioEventLoop("nio-loop-" + (i + 1), workers, players);
+        }
+    }
+
+    /**
+     * Arranca los event loops y acepta conexiones en el hilo actual (bloquea).
+     */
+    public void run() throws IOException {
+        for (NioEventLoop loop : loops) {
+            loop.start();
+        }
+
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(port));
+            System.out.println("[NioServer] " + loops.length + " event loops escuchando en puerto " + port);
+
+            while (true) {
+                SocketChannel channel = serverChannel.accept(); // Espera conexión
+                System.out.println("Nuevo cliente conectado: " + channel.getRemoteAddress());
+                try {
+                    // Keepalive de TCP para clientes viejos que no responden PING (ver Heartbeat)
+                    channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+                    nextLoop().register(channel);
+                } catch (IOException e) {
+                    System.err.println("[NioServer] Error registrando cliente: " + e.getMessage());
+                    channel.close();
+                }
+            }
+        } finally {
+            for (NioEventLoop loop : loops) {
+                loop.shutdown();
+            }
+            workers.shutdown();
+        }
+    }
+
+    private NioEventLoop nextLoop() {
+        NioEventLoop loop = loops[nextLoop];
+        nextLoop = (nextLoop + 1) % loops.length;
+        return loop;
+    }
+}
@@ -0,0 +1,135 @@
+package com.battleship.server;
+
+import com.battleship.config.ServerConfig;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cola de salida acotada de una conexión.
+ *
+ * Quien envía solo encola los bytes y vuelve; el lado de I/O saca lotes con
+ * takeBatch y los escribe juntos (por ejemplo SHOT_RESULT + YOUR_TURN en una
+ * sola escritura). Así un cliente lento no frena al rival ni a los monitores.
+ *
+ * Si la cola supera outbound-max-bytes se aplica outbound-overflow:
+ * - drop-monitor: se descartan los mensajes de monitor más viejos todavía en
+ *   cola (el monitor detecta el salto de secuencia y pide MONITOR_RESYNC).
+ *   Si no alcanza, se desconecta al cliente.
+ * - disconnect: se desconecta al cliente lento.
+ */
+class OutboundQueue {
+
+    enum Overflow { DROP_MONITOR, DISCONNECT }
+
+    static final int MAX_BYTES = Math.max(1024, ServerConfig.getInt("outbound-max-bytes", 1024 * 1024));
+    static final Overflow POLICY = "disconnect".equalsIgnoreCase(ServerConfig.getString("outbound-overflow", "drop-monitor"))
+            ? Overflow.DISCONNECT : Overflow.DROP_MONITOR;
+
+    // Máximo de mensajes que se escriben juntos
+    private static final int MAX_BATCH = 64;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    // Bytes en cola más los que se están escribiendo
+    private int pendingBytes = 0;
+    private long dropped = 0;
+
+    /**
+     * Encola un mensaje ya codificado.
+     * @param droppable true para mensajes del monitor, que se pueden descartar
+     * @return false si el cliente no da abasto y hay que desconectarlo
+     */
+    boolean offer(ByteBuffer data, boolean droppable) {
+        int size = data.remaining();
+        lock.lock();
+        try {
+            if (pendingBytes + size > MAX_BYTES && pendingBytes > 0) {
+                if (POLICY == Overflow.DISCONNECT || !dropMonitorMessages(size)) {
+                    return false;
+                }
+            }
+            entries.add(new Entry(data, droppable));
+            pendingBytes += size;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Descarta los mensajes de monitor más viejos hasta que entre el nuevo
+    private boolean dropMonitorMessages(int needed) {
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext() && pendingBytes + needed > MAX_BYTES) {
+            Entry entry = it.next();
+            if (entry.droppable) {
+                it.remove();
+                pendingBytes -= entry.data.remaining();
+                dropped++;
+            }
+        }
+        return pendingBytes + needed <= MAX_BYTES;
+    }
+
+    /**
+     * Saca de la cola el siguiente lote para escribir. Los mensajes del lote
+     * ya no se pueden descartar; sus bytes se liberan con release().
+     * @return el lote, o null si no hay nada pendiente
+     */
+    ByteBuffer[] takeBatch() {
+        lock.lock();
+        try {
+            int count = Math.min(entries.size(), MAX_BATCH);
+            if (count == 0) return null;
+            ByteBuffer[] batch = new ByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                batch[i] = entries.poll().data;
+            }
+            return batch;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Informa que se escribieron bytes de un lote.
+     */
+    void release(int bytes) {
+        lock.lock();
+        try {
+            pendingBytes -= bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    boolean isEmpty() {
+        lock.lock();
+        try {
+            return entries.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getDropped() {
+        lock.lock();
+        try {
+            return dropped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Entry {
+        final ByteBuffer data;
+        final boolean droppable;
+
+        Entry(ByteBuffer data, boolean droppable) {
+            this.data = data;
+            this.droppable = droppable;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.battleship.server;
+
+import com.battleship.common.CommandView;
+import com.battleship.common.Opcode;
+import com.battleship.config.ServerConfig;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de solicitudes por dirección IP y por usuario, con un balde de
+ * fichas (TokenBucket) para cada clase de comando:
+ * - auth: LOGIN y REGISTER (cada uno cuesta un BCrypt de cientos de ms)
+ * - lobby: GET_ROOMS, CREATE_ROOM, JOIN_ROOM, suscripción al lobby y comandos desconocidos
+ * - game: SHOOT y PLACE_SHIPS
+ * HELLO, LOGOUT, PING/PONG y MONITOR_RESYNC no se limitan.
+ *
+ * En auth el usuario es el que se intenta autenticar (frena a quien prueba
+ * contraseñas de una cuenta desde muchas IPs); en las demás clases es el
+ * jugador de la sesión. La verificación se hace antes de tocar la base de
+ * datos o calcular hashes, así que rechazar es barato.
+ *
+ * Cada límite se configura como "solicitudes/segundos" (rate-auth-ip=20/60:
+ * ráfagas de hasta 20 y 20 cada 60 s sostenidas); "0" lo desactiva.
+ */
+final class RateLimiter {
+
+    private static final int AUTH = 0;
+    private static final int LOBBY = 1;
+    private static final int GAME = 2;
+    private static final int NONE = -1;
+
+    private static final Limit[] BY_IP = {
+            new Limit("auth.ip", "rate-auth-ip", "20/60"),
+            new Limit("lobby.ip", "rate-lobby-ip", "200/10"),
+            new Limit("game.ip", "rate-game-ip", "600/10")
+    };
+    private static final Limit[] BY_USER = {
+            new Limit("auth.user", "rate-auth-user", "5/60"),
+            new Limit("lobby.user", "rate-lobby-user", "30/10"),
+            new Limit("game.user", "rate-game-user", "30/5")
+    };
+
+    // Cada cuánto se descartan los baldes que volvieron a llenarse
+    private static final long SWEEP_INTERVAL_MS = 60_000;
+
+    static {
+        for (Limit limit : BY_IP) limit.registerStats();
+        for (Limit limit : BY_USER) limit.registerStats();
+        ServerScheduler.scheduleAtFixedRate("rate-limiter", RateLimiter::sweep, SWEEP_INTERVAL_MS);
+    }
+
+    private RateLimiter() {
+    }
+
+    /**
+     * Consume una ficha de los baldes que aplican al comando.
+     * @param remoteHost IP del cliente
+     * @param playerName jugador autenticado, o null
+     * @return false si la solicitud se debe rechazar
+     */
+    static boolean allow(CommandView message, String remoteHost, String playerName) {
+        int commandClass = classOf(message.getOpcode());
+        if (commandClass == NONE) return true;
+
+        String user = playerName;
+        if (commandClass == AUTH) {
+            user = message.size() > 0 ? message.get(0) : null; // LOGIN:usuario / REGISTER:usuario
+        }
+        // Primero la IP: una IP que inunda con usuarios inventados no crea baldes por usuario
+        return BY_IP[commandClass].tryAcquire(remoteHost) && BY_USER[commandClass].tryAcquire(user);
+    }
+
+    private static int classOf(int opcode) {
+        switch (opcode) {
+            case Opcode.LOGIN:
+            case Opcode.REGISTER:
+                return AUTH;
+            case Opcode.SHOOT:
+            case Opcode.PLACE_SHIPS:
+                return GAME;
+            case Opcode.CREATE_ROOM:
+            case Opcode.JOIN_ROOM:
+            case Opcode.LIST_ROOMS:
+            case Opcode.LOBBY_SUBSCRIBE:
+            case Opcode.LOBBY_UNSUBSCRIBE:
+            case Opcode.UNKNOWN:
+                return LOBBY;
+            default:
+                return NONE;
+        }
+    }
+
+    private static void sweep() {
+        for (Limit limit : BY_IP) limit.sweep();
+        for (Limit limit : BY_USER) limit.sweep();
+    }
+
+    /**
+     * Un límite (clase de comando + dimensión) con un balde por clave.
+     */
+    private static final class Limit {
+        // Tope de baldes por límite: si se alcanza, las claves nuevas no se limitan
+        // en esta dimensión (el límite por IP sigue actuando)
+        private static final int MAX_KEYS = 100_000;
+
+        private final String name;
+        private final double capacity;
+        private final double perSecond;
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final LongAdder rejected = new LongAdder();
+
+        Limit(String name, String option, String defaultValue) {
+            this.name = name;
+            String value = ServerConfig.getString(option, defaultValue);
+            double[] parsed = parse(value);
+            if (parsed == null) {
+                System.err.println("[ServerConfig] Valor inválido para " + option + ": " + value + ", usando " + defaultValue);
+                parsed = parse(defaultValue);
+            }
+            this.capacity = parsed[0];
+            this.perSecond = parsed[1];
+        }
+
+        // "N/S" -> {N, N/S}; "0" -> sin límite
+        private static double[] parse(String value) {
+            try {
+                if (value.equals("0")) return new double[]{0, 0};
+                int slash = value.indexOf('/');
+                if (slash < 0) return null;
+                int requests = Integer.parseInt(value.substring(0, slash).trim());
+                int seconds = Integer.parseInt(value.substring(slash + 1).trim());
+                if (requests <= 0 || seconds <= 0) return null;
+                return new double[]{requests, requests / (double) seconds};
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        boolean tryAcquire(String key) {
+            if (capacity == 0 || key == null) return true;
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= MAX_KEYS) return true;
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, perSecond));
+            }
+            if (bucket.tryAcquire()) return true;
+            rejected.increment();
+            return false;
+        }
+
+        void sweep() {
+            buckets.values().removeIf(TokenBucket::isFull);
+        }
+
+        void registerStats() {
+            ServerStats.register("rechazos." + name, rejected::sum);
+        }
+    }
+}
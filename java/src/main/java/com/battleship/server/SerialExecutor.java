@@ -0,0 +1,59 @@
+package com.battleship.server;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ejecuta tareas de una en una y en orden de llegada sobre un pool compartido.
+ * Se usa para que los comandos de una misma conexión nunca se procesen en paralelo
+ * sin necesitar un hilo dedicado por conexión.
+ */
+public class SerialExecutor implements Executor {
+
+    // Máximo de tareas seguidas antes de ceder el hilo a otras colas
+    private static final int BATCH_LIMIT = 64;
+
+    private final Executor delegate;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public SerialExecutor(Executor delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            delegate.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            Runnable task;
+            int processed = 0;
+            while (processed < BATCH_LIMIT && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    System.err.println("[SerialExecutor] Error ejecutando tarea: " + e.getMessage());
+                    e.printStackTrace();
+                }
+                processed++;
+            }
+        } finally {
+            scheduled.set(false);
+            // Si llegaron tareas mientras terminábamos, volver a programar
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
@@ -1,14 +1,112 @@
 package com.battleship.server;
 
+import com.battleship.config.ServerConfig;
+import com.battleship.persistence.AsyncPlayerDAO;
+import com.battleship.persistence.CachingPlayerRepository;
+import com.battleship.persistence.MappedPlayerRepository;
+import com.battleship.persistence.PersistenceManager;
+import com.battleship.persistence.PlayerRepositories;
+import com.battleship.persistence.PlayerRepository;
+import com.battleship.persistence.PoolMetrics;
+
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ServerMain {
     private static final int PORT = 9090;
 
+    // Modos de E/S: "blocking" (un hilo por cliente), "virtual" (un hilo virtual
+    // por cliente, Java 21+) o "nio" (Selector + event loops)
+    public static final String MODE_BLOCKING = "blocking";
+    public static final String MODE_VIRTUAL = "virtual";
+    public static final String MODE_NIO = "nio";
+
     public static void main(String[] args) {
-        System.out.println("Iniciando Servidor Batalla Naval en puerto " + PORT);
+        ServerConfig.init(args);
+        String mode = ServerConfig.getString("io-mode", MODE_BLOCKING).toLowerCase();
+
+        System.out.println("Iniciando Servidor Batalla Naval en puerto " + PORT + " (modo " + mode + ")");
+
+        // El almacenamiento se abre antes de escuchar: si falla (archivo
+        // inválido, BD caída) el servidor no llega a aceptar clientes
+        AsyncPlayerDAO players;
+        try {
+            players = openPlayers();
+        } catch (RuntimeException e) {
+            System.err.println("[ServerMain] No se pudo abrir el almacenamiento de jugadores: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+            return;
+        }
+
+        try {
+            if (MODE_NIO.equals(mode)) {
+                runNio(players);
+            } else if (MODE_VIRTUAL.equals(mode)) {
+                runVirtual(players);
+            } else {
+                runBlocking(players);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Crea el repositorio de jugadores y su acceso asíncrono, registra sus
+     * estadísticas, el guardado periódico de resultados y el cierre al
+     * terminar la JVM.
+     */
+    private static AsyncPlayerDAO openPlayers() {
+        PlayerRepository repository = PlayerRepositories.create();
+        if (PlayerRepositories.usesDatabase()) {
+            // El EntityManagerFactory se crea a demanda: se fuerza ahora
+            PersistenceManager.checkConnection();
+        }
+        AsyncPlayerDAO players = new AsyncPlayerDAO(repository, HashingPool.executor());
+
+        ServerStats.register("bd.activos", players::getActiveCount);
+        ServerStats.register("bd.en_cola", players::getQueueSize);
+        ServerStats.register("bd.rechazados", players::getRejectedCount);
+        ServerStats.register("bd.migraciones_fallidas", players::getFailedMigrations);
+        ServerStats.register("resultados.pendientes", players::getPendingResults);
+        ServerStats.register("resultados.fallos", players::getFailedResultFlushes);
+        ServerStats.register("resultados.descartados", players::getDroppedResults);
+        if (PlayerRepositories.usesDatabase()) {
+            ServerStats.register("bd.pool.activas", PoolMetrics::getActive);
+            ServerStats.register("bd.pool.libres", PoolMetrics::getIdle);
+            ServerStats.register("bd.pool.esperando", PoolMetrics::getWaiting);
+            ServerStats.register("bd.pool.espera_prom_us", PoolMetrics::getAverageWaitMicros);
+            ServerStats.register("bd.pool.timeouts", PoolMetrics::getTimeouts);
+        }
+        if (repository instanceof CachingPlayerRepository) {
+            CachingPlayerRepository cache = (CachingPlayerRepository) repository;
+            ServerStats.register("cache.aciertos", cache::getHits);
+            ServerStats.register("cache.fallos", cache::getMisses);
+            ServerStats.register("cache.desalojos", cache::getEvictions);
+            ServerStats.register("cache.tamano", cache::getSize);
+        }
+        if (repository instanceof MappedPlayerRepository && MappedPlayerRepository.FORCE_MS > 0) {
+            // El último lote de resultados no queda sin sincronizar hasta el
+            // cierre. El force() bloquea en el disco: corre en el pool de la BD,
+            // no en el hilo del scheduler
+            MappedPlayerRepository mapped = (MappedPlayerRepository) repository;
+            ServerScheduler.scheduleAtFixedRate("almacenamiento",
+                    () -> players.runMaintenance(mapped::forceIfDirty), MappedPlayerRepository.FORCE_MS);
+        }
+
+        // Resultados de partidas: se guardan en lotes y lo pendiente se
+        // escribe antes de que termine la JVM
+        ServerScheduler.scheduleAtFixedRate("resultados", players::flushResults, AsyncPlayerDAO.RESULTS_FLUSH_MS);
+        Runtime.getRuntime().addShutdownHook(new Thread(players::close, "db-shutdown"));
+        return players;
+    }
+
+    private static void runBlocking(AsyncPlayerDAO players) throws IOException {
         try (ServerSocket serverSocket = new ServerSocket(PORT)) {
             
             while (true) {
@@ -16,12 +114,50 @@ public class ServerMain {
                 System.out.println("Nuevo cliente conectado: " + clientSocket.getInetAddress());
                 
                 // Crea un hilo por cada cliente [cite: 21]
-                ClientHandler handler = new ClientHandler(clientSocket);
+                ClientHandler handler = new ClientHandler(clientSocket, players);
                 new Thread(handler).start();
             }
-            
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Igual que el modo bloqueante, pero cada ClientHandler corre en un hilo virtual.
+     * Si la JVM no soporta hilos virtuales se vuelve al modo bloqueante.
+     */
+    private static void runVirtual(AsyncPlayerDAO players) throws IOException {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor == null) {
+            System.err.println("[ServerMain] Hilos virtuales no disponibles (requiere Java 21+), usando modo " + MODE_BLOCKING);
+            runBlocking(players);
+            return;
+        }
+
+        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
+            while (true) {
+                Socket clientSocket = serverSocket.accept(); // Espera conexión
+                System.out.println("Nuevo cliente conectado: " + clientSocket.getInetAddress());
+                executor.execute(new ClientHandler(clientSocket, players));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    // Se busca por reflexión para que el proyecto siga compilando con release 17
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static void runNio(AsyncPlayerDAO players) throws IOException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int ioThreads = ServerConfig.getInt("io-threads", Math.max(1, cores / 2));
+        // Los comandos pueden bloquear (BCrypt, BD), por eso hay más workers que núcleos
+        int workerThreads = ServerConfig.getInt("worker-threads", cores * 4);
+        new NioServer(PORT, ioThreads, workerThreads, players).run();
+    }
+}
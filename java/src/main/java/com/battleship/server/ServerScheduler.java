@@ -0,0 +1,44 @@
+package com.battleship.server;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hilo único del servidor para tareas periódicas y demoradas (publicación al
+ * monitor, etc.). Las tareas deben ser cortas: el trabajo pesado o bloqueante
+ * se delega a otro pool.
+ */
+public class ServerScheduler {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "server-scheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ServerScheduler() {
+    }
+
+    /**
+     * Ejecuta la tarea cada periodMs. Un error en una ejecución se registra y
+     * no cancela las siguientes.
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(String name, Runnable task, long periodMs) {
+        return scheduler.scheduleAtFixedRate(() -> runSafely(name, task), periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+
+    public static ScheduledFuture<?> schedule(String name, Runnable task, long delayMs) {
+        return scheduler.schedule(() -> runSafely(name, task), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private static void runSafely(String name, Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println("[ServerScheduler] Error en tarea " + name + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.battleship.server;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Contadores del servidor que se muestran en el monitor (solicitudes
+ * rechazadas, etc.). Cada componente registra sus contadores con un nombre;
+ * MonitorPublisher arma con snapshot() el mensaje MONITOR_STATS.
+ */
+public final class ServerStats {
+
+    // Ordenados por nombre para que el monitor los muestre siempre igual
+    private static final Map<String, LongSupplier> counters = new ConcurrentSkipListMap<>();
+
+    private ServerStats() {
+    }
+
+    /**
+     * Registra un contador. Si ya había uno con ese nombre, lo reemplaza.
+     */
+    public static void register(String name, LongSupplier value) {
+        counters.put(name, value);
+    }
+
+    /**
+     * Valores actuales. Formato: nombre=valor,nombre=valor,...
+     */
+    public static String snapshot() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LongSupplier> counter : counters.entrySet()) {
+            if (sb.length() > 0) sb.append(',');
+            sb.append(counter.getKey()).append('=').append(counter.getValue().getAsLong());
+        }
+        return sb.toString();
+    }
+}
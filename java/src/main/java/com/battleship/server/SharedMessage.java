@@ -0,0 +1,65 @@
+package com.battleship.server;
+
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.Message;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Mensaje que se envía igual a varios destinatarios (eventos del lobby,
+ * YOUR_TURN, Start_Placing_Ships...). Se codifica una sola vez por formato
+ * y todas las conexiones encolan el mismo arreglo de bytes, que nadie modifica.
+ *
+ * La codificación es perezosa: si ningún cliente usa binario, la trama
+ * binaria nunca se arma. Dos hilos pueden codificar a la vez; el resultado
+ * es el mismo, así que no hace falta sincronizar.
+ */
+public final class SharedMessage {
+
+    private final Message message;
+    private volatile byte[] binary;
+    private volatile byte[] text;
+
+    private SharedMessage(Message message) {
+        this.message = message;
+    }
+
+    public static SharedMessage of(String command, Object... args) {
+        return new SharedMessage(Message.of(command, args));
+    }
+
+    /**
+     * A partir de una línea del protocolo de texto (COMANDO:arg1:arg2...).
+     */
+    public static SharedMessage parse(String line) {
+        return new SharedMessage(Message.parse(line));
+    }
+
+    public Message getMessage() {
+        return message;
+    }
+
+    /**
+     * Bytes listos para escribir (con el salto de línea en texto, en UTF-8).
+     * No modificar.
+     */
+    byte[] encoded(boolean binaryFormat) {
+        if (binaryFormat) {
+            byte[] bytes = binary;
+            if (bytes == null) {
+                binary = bytes = BinaryCodec.encode(message);
+            }
+            return bytes;
+        }
+        byte[] bytes = text;
+        if (bytes == null) {
+            text = bytes = (message.toText() + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return message.toText();
+    }
+}
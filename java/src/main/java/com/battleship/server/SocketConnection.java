@@ -0,0 +1,185 @@
+package com.battleship.server;
+
+import com.battleship.common.BinaryCodec;
+import com.battleship.common.Message;
+import com.battleship.common.WireReader;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Conexión clásica (modo bloqueante): el hilo del cliente lee con dispatchNext
+ * y cualquier hilo puede enviar. Los envíos van a una cola acotada que vacía
+ * un hilo del pool de escritura, con un flush por lote.
+ */
+public class SocketConnection implements Connection {
+
+    // Hilos que escriben a los sockets; solo se usan mientras hay algo en cola
+    private static final ExecutorService WRITERS;
+    // Hilos donde terminan las operaciones asíncronas de las sesiones (el
+    // hilo de cada cliente está bloqueado leyendo)
+    private static final ExecutorService CALLBACKS;
+
+    static {
+        AtomicInteger count = new AtomicInteger();
+        WRITERS = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "socket-writer-" + count.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger callbackCount = new AtomicInteger();
+        CALLBACKS = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "session-callback-" + callbackCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private final Socket socket;
+    private final WireReader in;
+    private final OutputStream out;
+    // El protocolo va siempre en UTF-8, igual que en modo NIO y en los clientes
+    private final Charset charset = StandardCharsets.UTF_8;
+    private final OutboundQueue outbound = new OutboundQueue();
+    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private volatile boolean binaryOutbound = false;
+    private final SerialExecutor session = new SerialExecutor(CALLBACKS);
+
+    public SocketConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        // Keepalive de TCP para clientes viejos que no responden PING (ver Heartbeat)
+        socket.setKeepAlive(true);
+        this.in = new WireReader(socket.getInputStream(), charset, BinaryCodec.MAX_FRAME);
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    /**
+     * Lee el siguiente mensaje (bloquea) y lo entrega al handler. Las líneas de
+     * texto se procesan directamente desde el buffer de lectura.
+     * @return false si el cliente cerró la conexión
+     */
+    boolean dispatchNext(ClientHandler handler) throws IOException {
+        if (in.isBinary()) {
+            Message message = in.read();
+            if (message == null) return false;
+            handler.processMessage(message);
+        } else {
+            int length = in.readLineBytes();
+            if (length < 0) return false;
+            handler.processLine(in.lineBuffer(), 0, length);
+        }
+        return true;
+    }
+
+    @Override
+    public void send(String line) {
+        enqueue(encode(line), false);
+    }
+
+    @Override
+    public void send(Message message) {
+        enqueue(encode(message), false);
+    }
+
+    @Override
+    public void send(SharedMessage message) {
+        enqueue(message.encoded(binaryOutbound), false);
+    }
+
+    @Override
+    public void sendDroppable(String line) {
+        enqueue(encode(line), true);
+    }
+
+    @Override
+    public void switchToBinary(String textReply) {
+        in.setBinary(true);
+        send(textReply);
+        binaryOutbound = true;
+    }
+
+    private byte[] encode(String line) {
+        return binaryOutbound ? BinaryCodec.encode(Message.parse(line)) : (line + "\n").getBytes(charset);
+    }
+
+    private byte[] encode(Message message) {
+        return binaryOutbound ? BinaryCodec.encode(message) : (message.toText() + "\n").getBytes(charset);
+    }
+
+    private void enqueue(byte[] bytes, boolean droppable) {
+        if (closed.get()) return;
+        if (!outbound.offer(ByteBuffer.wrap(bytes), droppable)) {
+            System.err.println("[SocketConnection] Cliente lento, se desconecta: " + getRemoteAddress()
+                    + " (más de " + OutboundQueue.MAX_BYTES + " bytes pendientes)");
+            // El hilo lector recibe el error y limpia la sesión
+            close();
+            return;
+        }
+        if (writing.compareAndSet(false, true)) {
+            WRITERS.execute(this::drain);
+        }
+    }
+
+    // Escribe lo pendiente por lotes: un flush (una llamada al sistema) por lote
+    private void drain() {
+        try {
+            ByteBuffer[] batch;
+            while ((batch = outbound.takeBatch()) != null) {
+                int bytes = 0;
+                for (ByteBuffer buffer : batch) {
+                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    bytes += buffer.remaining();
+                }
+                out.flush();
+                outbound.release(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Error escribiendo a " + getRemoteAddress() + ": " + e.getMessage());
+            close();
+        } finally {
+            writing.set(false);
+            // Otro hilo pudo encolar justo después del último lote
+            if (!closed.get() && !outbound.isEmpty() && writing.compareAndSet(false, true)) {
+                WRITERS.execute(this::drain);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            if (!socket.isClosed()) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getInetAddress());
+    }
+
+    @Override
+    public Executor sessionExecutor() {
+        return session;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return socket.getInetAddress().getHostAddress();
+    }
+}
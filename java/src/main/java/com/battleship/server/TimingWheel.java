@@ -0,0 +1,156 @@
+package com.battleship.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para los relojes de las salas:
+ * tiempo por turno, plazo para colocar barcos y vencimiento de salas vacías.
+ *
+ * La rueda tiene un arreglo de casilleros; cada casillero es una lista doblemente
+ * enlazada de temporizadores. Programar y cancelar son O(1) (enlazar o desenlazar
+ * un nodo), así que con miles de salas no hay un ScheduledFuture ni una cola de
+ * prioridad por sala. Una sola tarea de ServerScheduler avanza la rueda un
+ * casillero por tick y dispara los temporizadores vencidos; los plazos más largos
+ * que una vuelta completa quedan en su casillero hasta la vuelta que corresponde.
+ *
+ * La precisión es de un tick. Las tareas se ejecutan en el hilo del scheduler:
+ * deben ser cortas (por ejemplo encolar un comando en el buzón de una sala).
+ */
+public final class TimingWheel {
+
+    private final String name;
+    private final long tickMs;
+    private final Timeout[] buckets;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Ticks procesados desde que arrancó la rueda (solo con el lock)
+    private long currentTick = 0;
+    private int pending = 0;
+
+    public TimingWheel(String name, long tickMs, int bucketCount) {
+        if (tickMs <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Rueda de temporizadores inválida: tick=" + tickMs + " casilleros=" + bucketCount);
+        }
+        this.name = name;
+        this.tickMs = tickMs;
+        this.buckets = new Timeout[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Timeout(this, 0, null); // centinela de la lista circular
+        }
+        ServerScheduler.scheduleAtFixedRate(name, this::advance, tickMs);
+    }
+
+    /**
+     * Programa una tarea para dentro de delayMs (redondeado hacia arriba al tick).
+     * @return el temporizador, para poder cancelarlo
+     */
+    public Timeout schedule(long delayMs, Runnable task) {
+        long ticks = Math.max(1, (delayMs + tickMs - 1) / tickMs);
+        lock.lock();
+        try {
+            long deadline = currentTick + ticks;
+            Timeout timeout = new Timeout(this, deadline, task);
+            timeout.linkBefore(buckets[(int) (deadline % buckets.length)]);
+            pending++;
+            return timeout;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Avanza un tick y dispara lo vencido en el casillero actual
+    private void advance() {
+        List<Runnable> expired = null;
+        lock.lock();
+        try {
+            currentTick++;
+            Timeout head = buckets[(int) (currentTick % buckets.length)];
+            Timeout node = head.next;
+            while (node != head) {
+                Timeout next = node.next;
+                if (node.deadline <= currentTick) {
+                    node.unlink();
+                    pending--;
+                    if (expired == null) expired = new ArrayList<>();
+                    expired.add(node.task);
+                }
+                node = next;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (expired == null) return;
+        for (Runnable task : expired) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("[TimingWheel] Error en temporizador de " + name + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Temporizadores programados que todavía no vencieron ni se cancelaron.
+     */
+    public int getPending() {
+        lock.lock();
+        try {
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    /**
+     * Un temporizador programado. Es un nodo de la lista de su casillero.
+     */
+    public static final class Timeout {
+        private final TimingWheel wheel;
+        private final long deadline;
+        private final Runnable task;
+        private Timeout prev = this;
+        private Timeout next = this;
+
+        private Timeout(TimingWheel wheel, long deadline, Runnable task) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        /**
+         * Cancela el temporizador en O(1).
+         * @return false si ya había vencido o estaba cancelado
+         */
+        public boolean cancel() {
+            wheel.lock.lock();
+            try {
+                if (next == this) return false;
+                unlink();
+                wheel.pending--;
+                return true;
+            } finally {
+                wheel.lock.unlock();
+            }
+        }
+
+        private void linkBefore(Timeout head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.battleship.server;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Balde de fichas: admite ráfagas de hasta "capacity" solicitudes y se
+ * rellena a "refillPerSecond" fichas por segundo. Sin fichas, la solicitud
+ * se rechaza.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Protegidos por lock
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Toma una ficha si hay.
+     * @return false si el balde está vacío
+     */
+    boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * true si el balde volvió a llenarse: nadie lo usó en un buen rato y se
+     * puede descartar (uno nuevo arranca igual, lleno).
+     */
+    boolean isFull() {
+        lock.lock();
+        try {
+            refill(System.nanoTime());
+            return tokens >= capacity;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefill;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+            lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.battleship.ui.game;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+
+/**
+ * Tablero dibujado en un solo componente.
+ * Reemplaza la grilla de JLabel (un componente por casilla) para que un
+ * tablero de 100x100 no cree 10.000 componentes: solo se pintan las casillas
+ * que caen dentro del área a repintar.
+ */
+class BoardCanvas extends JComponent {
+
+    /**
+     * Indica cómo se ve cada casilla.
+     */
+    interface CellRenderer {
+        Color background(int row, int col);
+        String symbol(int row, int col); // null = sin símbolo
+    }
+
+    /**
+     * Eventos del mouse traducidos a casillas.
+     */
+    interface CellListener {
+        void cellClicked(int row, int col);
+        void cellHovered(int row, int col); // -1, -1 cuando el mouse sale del tablero
+    }
+
+    private static final Color COLOR_GRID = new Color(224, 224, 224);
+    private static final int MIN_CELL = 12;
+    private static final int MAX_CELL = 32;
+    private static final int MIN_CELL_WITH_SYMBOL = 16;
+
+    private final int rows;
+    private final int cols;
+    private final int cellSize;
+    private final CellRenderer renderer;
+    private final Font symbolFont;
+
+    private int hoverRow = -1;
+    private int hoverCol = -1;
+
+    BoardCanvas(int rows, int cols, CellRenderer renderer, CellListener listener) {
+        this.rows = rows;
+        this.cols = cols;
+        this.renderer = renderer;
+        // Casillas de 32px en 8x8; más chicas en tableros grandes (con scroll)
+        this.cellSize = Math.max(MIN_CELL, Math.min(MAX_CELL, 320 / Math.max(rows, cols)));
+        this.symbolFont = new Font("Arial", Font.BOLD, cellSize / 2);
+
+        setPreferredSize(new Dimension(cols * cellSize + 1, rows * cellSize + 1));
+        setOpaque(true);
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = e.getY() / cellSize;
+                int col = e.getX() / cellSize;
+                if (row < rows && col < cols) {
+                    listener.cellClicked(row, col);
+                }
+            }
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int row = e.getY() / cellSize;
+                int col = e.getX() / cellSize;
+                if (row >= rows || col >= cols) {
+                    row = -1;
+                    col = -1;
+                }
+                if (row != hoverRow || col != hoverCol) {
+                    hoverRow = row;
+                    hoverCol = col;
+                    listener.cellHovered(row, col);
+                }
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                hoverRow = -1;
+                hoverCol = -1;
+                listener.cellHovered(-1, -1);
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+    }
+
+    /**
+     * Repinta solo la casilla indicada.
+     */
+    void repaintCell(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) return;
+        repaint(col * cellSize, row * cellSize, cellSize + 1, cellSize + 1);
+    }
+
+    /**
+     * Repinta el rectángulo de casillas que ocupa un barco.
+     */
+    void repaintCells(int row, int col, int length, boolean horizontal) {
+        int width = horizontal ? length : 1;
+        int height = horizontal ? 1 : length;
+        repaint(col * cellSize, row * cellSize, width * cellSize + 1, height * cellSize + 1);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+
+        int firstRow = Math.max(0, clip.y / cellSize);
+        int lastRow = Math.min(rows - 1, (clip.y + clip.height) / cellSize);
+        int firstCol = Math.max(0, clip.x / cellSize);
+        int lastCol = Math.min(cols - 1, (clip.x + clip.width) / cellSize);
+
+        g.setColor(COLOR_GRID);
+        g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        boolean drawSymbols = cellSize >= MIN_CELL_WITH_SYMBOL;
+        if (drawSymbols) {
+            g.setFont(symbolFont);
+        }
+        FontMetrics metrics = g.getFontMetrics();
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                int x = col * cellSize;
+                int y = row * cellSize;
+                g.setColor(renderer.background(row, col));
+                g.fillRect(x + 1, y + 1, cellSize - 1, cellSize - 1);
+
+                if (drawSymbols) {
+                    String symbol = renderer.symbol(row, col);
+                    if (symbol != null) {
+                        g.setColor(Color.WHITE);
+                        int textX = x + (cellSize - metrics.stringWidth(symbol)) / 2;
+                        int textY = y + (cellSize + metrics.getAscent() - metrics.getDescent()) / 2;
+                        g.drawString(symbol, textX, textY);
+                    }
+                }
+            }
+        }
+    }
+}
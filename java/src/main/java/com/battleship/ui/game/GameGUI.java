@@ -2,6 +2,7 @@ package com.battleship.ui.game;
 
 import com.battleship.client.ClientController;
 import com.battleship.common.Protocol;
+import com.battleship.model.GameRules;
 
 import javax.swing.*;
 import java.awt.*;
@@ -15,16 +16,21 @@ public class GameGUI extends JFrame {
     private String playerName;
     private String opponentName;
 
+    // Reglas de la sala (tamaño del tablero y flota)
+    private final GameRules rules;
+
     // Estado del tablero del oponente
     // 0 = No disparado, 1 = MISS, 2 = HIT, 3 = SHIP_SUNK
-    private int[][] enemyBoard = new int[8][8];
+    private int[][] enemyBoard;
+    private int hoverRow = -1;
+    private int hoverCol = -1;
     private boolean isMyTurn = false;
 
     // Barcos hundidos del oponente (para mostrarlos cuando se hundan)
     private List<SunkShip> sunkShips = new ArrayList<>();
 
     // Componentes UI
-    private JLabel[][] boardCells;
+    private BoardCanvas boardCanvas;
     private JLabel turnLabel;
     private JLabel opponentShipsLabel;
     private JLabel lastShotLabel;
@@ -35,12 +41,19 @@ public class GameGUI extends JFrame {
     private static final Color COLOR_HIT = new Color(244, 67, 54);          // Rojo (tocado)
     private static final Color COLOR_SUNK = new Color(76, 175, 80);        // Verde (hundido)
     private static final Color COLOR_GRID = new Color(224, 224, 224);       // Gris
+    private static final Color COLOR_HOVER = new Color(179, 229, 252);      // Azul claro
     private static final Color COLOR_TURN_YOURS = new Color(76, 175, 80);   // Verde
     private static final Color COLOR_TURN_OPPONENT = new Color(244, 67, 54); // Rojo
 
     public GameGUI(String playerName, String opponentName) {
+        this(playerName, opponentName, GameRules.DEFAULT);
+    }
+
+    public GameGUI(String playerName, String opponentName, GameRules rules) {
         this.playerName = playerName;
         this.opponentName = opponentName;
+        this.rules = rules;
+        this.enemyBoard = new int[rules.getRows()][rules.getCols()];
         this.controller = ClientController.getInstance();
 
         initComponents();
@@ -80,7 +93,7 @@ public class GameGUI extends JFrame {
             BorderFactory.createEmptyBorder(15, 15, 15, 15)
         ));
 
-        JLabel titleLabel = new JLabel("Tablero Enemigo (8x8)", SwingConstants.CENTER);
+        JLabel titleLabel = new JLabel("Tablero Enemigo (" + rules.getSizeLabel() + ")", SwingConstants.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
         titleLabel.setForeground(new Color(13, 71, 161));
         panel.add(titleLabel, BorderLayout.NORTH);
@@ -91,54 +104,63 @@ public class GameGUI extends JFrame {
         hintLabel.setForeground(new Color(117, 117, 117));
         panel.add(hintLabel, BorderLayout.SOUTH);
 
-        JPanel boardGrid = new JPanel(new GridLayout(8, 8, 1, 1));
-        boardGrid.setBackground(COLOR_GRID);
-        boardCells = new JLabel[8][8];
+        boardCanvas = new BoardCanvas(rules.getRows(), rules.getCols(),
+            new BoardCanvas.CellRenderer() {
+                @Override
+                public Color background(int row, int col) {
+                    return cellColor(row, col);
+                }
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                JLabel cell = createBoardCell(row, col);
-                boardCells[row][col] = cell;
-                boardGrid.add(cell);
-            }
-        }
+                @Override
+                public String symbol(int row, int col) {
+                    return cellSymbol(row, col);
+                }
+            },
+            new BoardCanvas.CellListener() {
+                @Override
+                public void cellClicked(int row, int col) {
+                    System.out.println("[GameGUI] mouseClicked en [" + row + "][" + col + "]");
+                    handleCellClick(row, col);
+                }
+
+                @Override
+                public void cellHovered(int row, int col) {
+                    int oldRow = hoverRow;
+                    int oldCol = hoverCol;
+                    hoverRow = row;
+                    hoverCol = col;
+                    boardCanvas.repaintCell(oldRow, oldCol);
+                    boardCanvas.repaintCell(row, col);
+                }
+            });
 
-        JScrollPane scrollPane = new JScrollPane(boardGrid);
+        JScrollPane scrollPane = new JScrollPane(boardCanvas);
         scrollPane.setPreferredSize(new Dimension(350, 350));
         panel.add(scrollPane, BorderLayout.CENTER);
 
         return panel;
     }
 
-    private JLabel createBoardCell(int row, int col) {
-        JLabel cell = new JLabel("", SwingConstants.CENTER);
-        cell.setPreferredSize(new Dimension(32, 32));
-        cell.setOpaque(true);
-        cell.setBackground(COLOR_EMPTY);
-        cell.setBorder(BorderFactory.createLineBorder(COLOR_GRID, 1));
-        cell.setFont(new Font("Arial", Font.BOLD, 16));
-
-        cell.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                System.out.println("[GameGUI] mouseClicked en [" + row + "][" + col + "]");
-                handleCellClick(row, col);
-            }
-
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (enemyBoard[row][col] == 0 && isMyTurn) {
-                    cell.setBackground(new Color(179, 229, 252)); // Hover azul claro
+    private Color cellColor(int row, int col) {
+        switch (enemyBoard[row][col]) {
+            case 1: return COLOR_MISS;
+            case 2: return COLOR_HIT;
+            case 3: return COLOR_SUNK;
+            default:
+                if (row == hoverRow && col == hoverCol && isMyTurn) {
+                    return COLOR_HOVER;
                 }
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                refreshCell(row, col);
-            }
-        });
+                return COLOR_EMPTY;
+        }
+    }
 
-        return cell;
+    private String cellSymbol(int row, int col) {
+        switch (enemyBoard[row][col]) {
+            case 1: return "○";
+            case 2: return "X";
+            case 3: return "■";
+            default: return null;
+        }
     }
 
     private JPanel createInfoPanel() {
@@ -160,7 +182,7 @@ public class GameGUI extends JFrame {
         infoContainer.setBackground(new Color(255, 255, 255));
 
         turnLabel = createInfoLabel("Turno: Esperando...");
-        opponentShipsLabel = createInfoLabel("Barcos enemigos hundidos: 0/5");
+        opponentShipsLabel = createInfoLabel("Barcos enemigos hundidos: 0/" + rules.getShipCount());
         lastShotLabel = createInfoLabel("Último disparo: -");
 
         infoContainer.add(turnLabel);
@@ -254,56 +276,7 @@ public class GameGUI extends JFrame {
     }
 
     private void refreshCell(int row, int col) {
-        JLabel cell = boardCells[row][col];
-        int state = enemyBoard[row][col];
-
-        switch (state) {
-            case 0: // No disparado
-                cell.setBackground(COLOR_EMPTY);
-                cell.setText("");
-                break;
-            case 1: // MISS
-                cell.setBackground(COLOR_MISS);
-                cell.setText("○");
-                cell.setForeground(Color.WHITE);
-                break;
-            case 2: // HIT
-                cell.setBackground(COLOR_HIT);
-                cell.setText("X");
-                cell.setForeground(Color.WHITE);
-                break;
-            case 3: // SHIP_SUNK - Pintar directamente en verde aquí
-                cell.setBackground(COLOR_SUNK);
-                cell.setText("■");
-                cell.setForeground(Color.WHITE);
-                break;
-        }
-
-        cell.repaint();
-    }
-
-    private void refreshBoard() {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                refreshCell(row, col);
-            }
-        }
-        // Actualizar barcos hundidos
-        refreshSunkShips();
-    }
-
-    private void refreshSunkShips() {
-        // Limpiar representación previa de barcos hundidos
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                if (enemyBoard[row][col] == 3) {
-                    JLabel cell = boardCells[row][col];
-                    cell.setBackground(COLOR_SUNK);
-                    cell.setText("■");
-                    cell.setForeground(Color.WHITE);
-                }
-            }
-        }
+        boardCanvas.repaintCell(row, col);
     }
 
     private void updateTurnIndicator() {
@@ -406,24 +379,11 @@ public class GameGUI extends JFrame {
                 System.out.println("[GameGUI]   [" + cellY + "][" + cellX + "]: " + oldState + " -> 3 (SUNK)");
             }
 
-            // SEGUNDO: Pintar directamente todas las celdas del barco en verde
-            System.out.println("[GameGUI] Pintando celdas en verde:");
-            for (int i = 0; i < size; i++) {
-                int cellX = horizontal ? x + i : x;
-                int cellY = horizontal ? y : y + i;
-                JLabel cell = boardCells[cellY][cellX];
-                System.out.println("[GameGUI]   [" + cellY + "][" + cellX + "] - setForeground, setText, repaint");
-                cell.setBackground(COLOR_SUNK);
-                cell.setText("■");
-                cell.setForeground(Color.WHITE);
-                cell.repaint();
-            }
+            // SEGUNDO: Repintar en verde solo las casillas del barco
+            boardCanvas.repaintCells(y, x, size, horizontal);
 
             // Actualizar contador
-            opponentShipsLabel.setText("Barcos enemigos hundidos: " + sunkShips.size() + "/5");
-
-            // Refrescar todo el tablero ANTES del JOptionPane
-            refreshBoard();
+            opponentShipsLabel.setText("Barcos enemigos hundidos: " + sunkShips.size() + "/" + rules.getShipCount());
 
             System.out.println("[GameGUI] Mostrando JOptionPane...");
 
@@ -457,13 +417,35 @@ public class GameGUI extends JFrame {
         });
     }
 
-    public void onGameOver(boolean won) {
+    public void onTurnTimeout(String timedOutPlayer, String policy) {
+        // Con FORFEIT llega enseguida GAME_OVER, que ya explica el resultado
+        if ("FORFEIT".equals(policy)) return;
         SwingUtilities.invokeLater(() -> {
-            String message = won
-                ? "¡FELICIDADES! Has ganado la partida.\n\nTodos los barcos enemigos han sido hundidos."
-                : "Has perdido la partida.\n\nEl oponente ha hundido todos tus barcos.";
+            boolean mine = timedOutPlayer.equals(playerName);
+            String message = mine ? "Se agotó tu tiempo para disparar.\nEl turno pasa a " + opponentName + "."
+                                  : opponentName + " no disparó a tiempo.\n¡Es tu turno!";
+            JOptionPane.showMessageDialog(this, message, "Tiempo agotado", JOptionPane.WARNING_MESSAGE);
+        });
+    }
+
+    /**
+     * Fin de la partida. result es el resultado de GAME_OVER: WIN, LOSE,
+     * WIN_BY_DISCONNECT, WIN_BY_TIMEOUT, LOSE_BY_TIMEOUT o TIMEOUT (anulada).
+     */
+    public void onGameOver(String result) {
+        SwingUtilities.invokeLater(() -> {
+            boolean won = result.startsWith("WIN");
+            String message;
+            switch (result) {
+                case "WIN" -> message = "¡FELICIDADES! Has ganado la partida.\n\nTodos los barcos enemigos han sido hundidos.";
+                case "WIN_BY_DISCONNECT" -> message = "Tu oponente abandonó la partida.\nGanas por abandono.";
+                case "WIN_BY_TIMEOUT" -> message = opponentName + " no disparó a tiempo.\nGanas la partida.";
+                case "LOSE_BY_TIMEOUT" -> message = "Se agotó tu tiempo para disparar.\nPierdes la partida.";
+                case "TIMEOUT" -> message = "Pasaron varios turnos seguidos sin disparos.\nLa partida se anuló.";
+                default -> message = "Has perdido la partida.\n\nEl oponente ha hundido todos tus barcos.";
+            }
 
-            String title = won ? "¡Victoria!" : "Derrota";
+            String title = won ? "¡Victoria!" : "TIMEOUT".equals(result) ? "Partida anulada" : "Derrota";
 
             JOptionPane.showMessageDialog(this, message, title,
                 won ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.ERROR_MESSAGE);
@@ -1,8 +1,10 @@
 package com.battleship.ui.game;
 
 import com.battleship.client.ClientController;
+import com.battleship.model.GameRules;
 import com.battleship.model.Ship;
 import com.battleship.common.Protocol;
+import com.battleship.ui.lobby.LobbyGUI;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,9 +15,9 @@ public class ShipPlacementGUI extends JFrame {
     private ClientController controller;
     private String playerName;
 
-    // Tamaños de barcos ajustados para tablero 8x8
-    private final int[] SHIP_SIZES = {2, 2, 3, 3, 4};
-    
+    // Reglas de la sala (tamaño del tablero y flota)
+    private final GameRules rules;
+
     // Estado
     private Ship[] ships;
     private Ship selectedShip;
@@ -23,10 +25,13 @@ public class ShipPlacementGUI extends JFrame {
     private int placedShipsCount = 0;
     private int hoverRow = -1;
     private int hoverCol = -1;
-    
+
+    // Ocupación del tablero: 0 = agua, shipId + 1 = barco
+    private int[] occupancy;
+
     // Componentes UI
     private JPanel shipsPanel;
-    private JLabel[][] boardCells;
+    private BoardCanvas boardCanvas;
     private JLabel statusLabel;
     private JLabel opponentStatusLabel;
     private JButton readyButton;
@@ -40,7 +45,13 @@ public class ShipPlacementGUI extends JFrame {
     private static final Color COLOR_GRID = new Color(224, 224, 224);     // Gris
 
     public ShipPlacementGUI(String playerName) {
+        this(playerName, GameRules.DEFAULT);
+    }
+
+    public ShipPlacementGUI(String playerName, GameRules rules) {
         this.playerName = playerName;
+        this.rules = rules;
+        this.occupancy = new int[rules.getRows() * rules.getCols()];
         this.controller = ClientController.getInstance();
 
         initShips();
@@ -51,9 +62,9 @@ public class ShipPlacementGUI extends JFrame {
     }
 
     private void initShips() {
-        ships = new Ship[SHIP_SIZES.length];
-        for (int i = 0; i < SHIP_SIZES.length; i++) {
-            ships[i] = new Ship(i, SHIP_SIZES[i]);
+        ships = new Ship[rules.getShipCount()];
+        for (int i = 0; i < ships.length; i++) {
+            ships[i] = new Ship(i, rules.getShipSize(i));
         }
     }
 
@@ -183,63 +194,62 @@ public class ShipPlacementGUI extends JFrame {
             BorderFactory.createEmptyBorder(15, 15, 15, 15)
         ));
 
-        JLabel titleLabel = new JLabel("Tu Tablero (8x8)", SwingConstants.CENTER);
+        JLabel titleLabel = new JLabel("Tu Tablero (" + rules.getSizeLabel() + ")", SwingConstants.CENTER);
         titleLabel.setFont(new Font("Arial", Font.BOLD, 16));
         titleLabel.setForeground(new Color(13, 71, 161));
         panel.add(titleLabel, BorderLayout.NORTH);
 
-        JPanel boardGrid = new JPanel(new GridLayout(8, 8, 1, 1));
-        boardGrid.setBackground(COLOR_GRID);
-        boardCells = new JLabel[8][8];
+        boardCanvas = new BoardCanvas(rules.getRows(), rules.getCols(),
+            new BoardCanvas.CellRenderer() {
+                @Override
+                public Color background(int row, int col) {
+                    return cellColor(row, col);
+                }
 
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                JLabel cell = createBoardCell(row, col);
-                boardCells[row][col] = cell;
-                boardGrid.add(cell);
-            }
-        }
+                @Override
+                public String symbol(int row, int col) {
+                    return null;
+                }
+            },
+            new BoardCanvas.CellListener() {
+                @Override
+                public void cellClicked(int row, int col) {
+                    System.out.println("[ShipPlacementGUI] mouseClicked en [" + row + "][" + col + "]");
+                    handleBoardCellClick(row, col);
+                }
+
+                @Override
+                public void cellHovered(int row, int col) {
+                    clearPreview();
+                    if (row >= 0 && selectedShip != null && !selectedShip.isPlaced()) {
+                        hoverRow = row;
+                        hoverCol = col;
+                        showShipPreview(row, col);
+                    }
+                }
+            });
 
-        JScrollPane scrollPane = new JScrollPane(boardGrid);
+        JScrollPane scrollPane = new JScrollPane(boardCanvas);
         scrollPane.setPreferredSize(new Dimension(300, 300));
         panel.add(scrollPane, BorderLayout.CENTER);
 
         return panel;
     }
 
-    private JLabel createBoardCell(int row, int col) {
-        JLabel cell = new JLabel("", SwingConstants.CENTER);
-        cell.setPreferredSize(new Dimension(30, 30));
-        cell.setOpaque(true);
-        cell.setBackground(COLOR_EMPTY);
-        cell.setBorder(BorderFactory.createLineBorder(COLOR_GRID, 1));
-        cell.setName(row + "," + col); // Guardar coordenadas en el nombre
-
-        cell.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                System.out.println("[ShipPlacementGUI] mouseClicked en [" + row + "][" + col + "]");
-                handleBoardCellClick(row, col);
-            }
-
-            @Override
-            public void mouseEntered(MouseEvent e) {
-                if (selectedShip != null && !selectedShip.isPlaced()) {
-                    hoverRow = row;
-                    hoverCol = col;
-                    showShipPreview(row, col);
-                }
-            }
-
-            @Override
-            public void mouseExited(MouseEvent e) {
-                hoverRow = -1;
-                hoverCol = -1;
-                clearPreview();
-            }
-        });
+    // Color de una casilla: vista previa del barco seleccionado, barco colocado o agua
+    private Color cellColor(int row, int col) {
+        if (hoverRow >= 0 && selectedShip != null && !selectedShip.isPlaced() && inPreview(row, col)) {
+            return isValidPlacement(selectedShip, hoverRow, hoverCol) ? COLOR_VALID : COLOR_INVALID;
+        }
+        return occupancy[row * rules.getCols() + col] != 0 ? COLOR_SHIP : COLOR_EMPTY;
+    }
 
-        return cell;
+    private boolean inPreview(int row, int col) {
+        int length = selectedShip.getLength();
+        if (selectedShip.isHorizontal()) {
+            return row == hoverRow && col >= hoverCol && col < hoverCol + length;
+        }
+        return col == hoverCol && row >= hoverRow && row < hoverRow + length;
     }
 
     private JPanel createInfoPanel() {
@@ -260,7 +270,7 @@ public class ShipPlacementGUI extends JFrame {
         infoContainer.setLayout(new BoxLayout(infoContainer, BoxLayout.Y_AXIS));
         infoContainer.setBackground(new Color(255, 255, 255));
 
-        statusLabel = createInfoLabel("Barcos colocados: 0/5");
+        statusLabel = createInfoLabel("Barcos colocados: 0/" + ships.length);
         opponentStatusLabel = createInfoLabel("Oponente: Esperando...");
 
         infoContainer.add(statusLabel);
@@ -301,6 +311,7 @@ public class ShipPlacementGUI extends JFrame {
             public void keyPressed(KeyEvent e) {
                 if (e.getKeyCode() == KeyEvent.VK_R) {
                     if (selectedShip != null && !selectedShip.isPlaced()) {
+                        clearPreview();
                         selectedShip.rotate();
                         updateShipPanelSelection();
                     }
@@ -333,28 +344,12 @@ public class ShipPlacementGUI extends JFrame {
 
     private void handleBoardCellClick(int row, int col) {
         // Primero, verificar si hay un barco en esta posición (para eliminar)
-        for (Ship ship : ships) {
-            if (ship.isPlaced()) {
-                if (ship.isHorizontal()) {
-                    int startX = ship.getStartX();
-                    int endX = startX + ship.getLength() - 1;
-                    int startY = ship.getStartY();
-                    if (startY == row && col >= startX && col <= endX) {
-                        removeShipFromBoard(ship);
-                        return;
-                    }
-                } else {
-                    int startY = ship.getStartY();
-                    int endY = startY + ship.getLength() - 1;
-                    int startX = ship.getStartX();
-                    if (startX == col && row >= startY && row <= endY) {
-                        removeShipFromBoard(ship);
-                        return;
-                    }
-                }
-            }
+        int occupant = occupancy[row * rules.getCols() + col];
+        if (occupant != 0) {
+            removeShipFromBoard(ships[occupant - 1]);
+            return;
         }
-        
+
         // Si hay un barco seleccionado, colocarlo en esta posición
         if (selectedShip != null && !selectedShip.isPlaced()) {
             placeShip(selectedShip, row, col);
@@ -367,128 +362,53 @@ public class ShipPlacementGUI extends JFrame {
 
         // Verificar límites
         if (horizontal) {
-            if (col + length > 8) return false;
+            if (col + length > rules.getCols()) return false;
         } else {
-            if (row + length > 8) return false;
+            if (row + length > rules.getRows()) return false;
         }
 
         // Verificar solapamiento con otros barcos
-        for (Ship other : ships) {
-            if (other.isPlaced() && other != ship) {
-                if (shipsOverlap(ship, col, row, other)) {
-                    return false;
-                }
+        for (int i = 0; i < length; i++) {
+            int cell = horizontal ? row * rules.getCols() + col + i : (row + i) * rules.getCols() + col;
+            if (occupancy[cell] != 0 && occupancy[cell] != ship.getShipId() + 1) {
+                return false;
             }
         }
 
         return true;
     }
 
-    private boolean shipsOverlap(Ship ship1, int x1, int y1, Ship ship2) {
-        int x2 = ship2.getStartX();
-        int y2 = ship2.getStartY();
-        int len1 = ship1.getLength();
-        int len2 = ship2.getLength();
-
-        boolean h1 = ship1.isHorizontal();
-        boolean h2 = ship2.isHorizontal();
-
-        if (h1 && h2) {
-            // Ambos horizontales
-            return y1 == y2 && ((x1 <= x2 && x2 < x1 + len1) || (x2 <= x1 && x1 < x2 + len2));
-        } else if (!h1 && !h2) {
-            // Ambos verticales
-            return x1 == x2 && ((y1 <= y2 && y2 < y1 + len1) || (y2 <= y1 && y1 < y2 + len2));
-        } else {
-            // Uno horizontal, uno vertical - verificar intersección en cruce
-            Ship horizontal = h1 ? ship1 : ship2;
-            Ship vertical = h1 ? ship2 : ship1;
-            
-            int hx = horizontal.getStartX();
-            int hy = horizontal.getStartY();
-            int hlen = horizontal.getLength();
-            
-            int vx = vertical.getStartX();
-            int vy = vertical.getStartY();
-            int vlen = vertical.getLength();
-            
-            return vx >= hx && vx < hx + hlen && hy >= vy && hy < vy + vlen;
-        }
-    }
-
     private void placeShipOnBoard(Ship ship) {
-        int startX = ship.getStartX();
-        int startY = ship.getStartY();
-        int length = ship.getLength();
-        boolean horizontal = ship.isHorizontal();
-
-        for (int i = 0; i < length; i++) {
-            if (horizontal) {
-                boardCells[startY][startX + i].setBackground(COLOR_SHIP);
-            } else {
-                boardCells[startY + i][startX].setBackground(COLOR_SHIP);
-            }
-        }
+        markShip(ship, ship.getShipId() + 1);
     }
 
     private void clearShipFromBoard(Ship ship) {
+        markShip(ship, 0);
+    }
+
+    private void markShip(Ship ship, int value) {
         int startX = ship.getStartX();
         int startY = ship.getStartY();
-        int length = ship.getLength();
         boolean horizontal = ship.isHorizontal();
 
-        for (int i = 0; i < length; i++) {
-            if (horizontal) {
-                boardCells[startY][startX + i].setBackground(COLOR_EMPTY);
-            } else {
-                boardCells[startY + i][startX].setBackground(COLOR_EMPTY);
-            }
+        for (int i = 0; i < ship.getLength(); i++) {
+            int cell = horizontal ? startY * rules.getCols() + startX + i : (startY + i) * rules.getCols() + startX;
+            occupancy[cell] = value;
         }
+        boardCanvas.repaintCells(startY, startX, ship.getLength(), horizontal);
     }
 
     private void showShipPreview(int row, int col) {
-        if (isValidPlacement(selectedShip, row, col)) {
-            highlightShip(selectedShip, row, col, COLOR_VALID);
-        } else {
-            highlightShip(selectedShip, row, col, COLOR_INVALID);
-        }
-    }
-
-    private void highlightShip(Ship ship, int row, int col, Color color) {
-        int length = ship.getLength();
-        boolean horizontal = ship.isHorizontal();
-
-        for (int i = 0; i < length; i++) {
-            if (horizontal) {
-                if (col + i < 16) {
-                    boardCells[row][col + i].setBackground(color);
-                }
-            } else {
-                if (row + i < 16) {
-                    boardCells[row + i][col].setBackground(color);
-                }
-            }
-        }
+        boardCanvas.repaintCells(row, col, selectedShip.getLength(), selectedShip.isHorizontal());
     }
 
     private void clearPreview() {
-        // Restaurar colores originales
-        refreshBoard();
-    }
-
-    private void refreshBoard() {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                boardCells[row][col].setBackground(COLOR_EMPTY);
-            }
-        }
-
-        // Re-colocar todos los barcos
-        for (Ship ship : ships) {
-            if (ship.isPlaced()) {
-                placeShipOnBoard(ship);
-            }
+        // Repintar solo las casillas que cubría la vista previa
+        if (hoverRow >= 0 && selectedShip != null) {
+            boardCanvas.repaintCells(hoverRow, hoverCol, selectedShip.getLength(), selectedShip.isHorizontal());
         }
+        hoverRow = -1;
+        hoverCol = -1;
     }
 
     private void updateShipPanelSelection() {
@@ -500,15 +420,15 @@ public class ShipPlacementGUI extends JFrame {
 
     private void updateStatus() {
         SwingUtilities.invokeLater(() -> {
-            statusLabel.setText("Barcos colocados: " + placedShipsCount + "/5");
-            readyButton.setEnabled(placedShipsCount == 5);
+            statusLabel.setText("Barcos colocados: " + placedShipsCount + "/" + ships.length);
+            readyButton.setEnabled(placedShipsCount == ships.length);
         });
     }
 
     private void handleReadyButton() {
         // Validar que todos los barcos estén colocados
-        if (placedShipsCount != 5) {
-            JOptionPane.showMessageDialog(this, "Debes colocar los 5 barcos antes de continuar.", "Error", JOptionPane.ERROR_MESSAGE);
+        if (placedShipsCount != ships.length) {
+            JOptionPane.showMessageDialog(this, "Debes colocar los " + ships.length + " barcos antes de continuar.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
 
@@ -550,6 +470,28 @@ public class ShipPlacementGUI extends JFrame {
         });
     }
 
+    /**
+     * La partida terminó durante la colocación: el oponente abandonó o venció
+     * el plazo para colocar barcos (result es el valor de GAME_OVER).
+     */
+    public void onGameOver(String result) {
+        SwingUtilities.invokeLater(() -> {
+            String message;
+            switch (result) {
+                case "WIN_BY_DISCONNECT" -> message = "Tu oponente abandonó la partida.\nGanas por abandono.";
+                case "WIN_BY_TIMEOUT" -> message = "Tu oponente no colocó sus barcos a tiempo.\nGanas la partida.";
+                case "LOSE_BY_TIMEOUT" -> message = "Se agotó el tiempo para colocar tus barcos.\nPierdes la partida.";
+                default -> message = "Se agotó el tiempo para colocar los barcos.\nLa partida se anuló.";
+            }
+            JOptionPane.showMessageDialog(this, message, "Partida terminada", JOptionPane.INFORMATION_MESSAGE);
+
+            // Volver al lobby
+            dispose();
+            LobbyGUI lobby = new LobbyGUI(playerName, controller.getVictorias(), controller.getDerrotas());
+            lobby.setVisible(true);
+        });
+    }
+
     public void onOpponentReady() {
         SwingUtilities.invokeLater(() -> {
             opponentStatusLabel.setText("Oponente: ¡Listo!");
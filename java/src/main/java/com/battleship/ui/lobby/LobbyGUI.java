@@ -2,6 +2,7 @@ package com.battleship.ui.lobby;
 
 import com.battleship.client.ClientController;
 import com.battleship.common.Protocol;
+import com.battleship.model.GameRules;
 import com.formdev.flatlaf.FlatLightLaf;
 
 import javax.swing.*;
@@ -14,8 +15,14 @@ import java.awt.*;
  */
 public class LobbyGUI extends JFrame {
 
+    // Tiempo por turno propuesto al crear una sala; el servidor acepta hasta 600 s
+    private static final int DEFAULT_TURN_SECONDS = 60;
+    private static final int MAX_TURN_SECONDS = 600;
+
     private ClientController controller;
     private DefaultTableModel tableModel;
+    // ID de sala -> fila de la tabla
+    private java.util.Map<String, Integer> rowIndex = new java.util.HashMap<>();
     private JTable roomTable;
     private JLabel playerStatsLabel;
     private JButton createRoomButton;
@@ -40,7 +47,8 @@ public class LobbyGUI extends JFrame {
         }
 
         initComponents();
-        requestRoomList();
+        // Recibir la lista una vez y después solo los cambios (ROOM_ADDED/CHANGED/REMOVED)
+        controller.sendMessage(Protocol.LOBBY_SUBSCRIBE);
     }
 
     private void initComponents() {
@@ -97,13 +105,13 @@ public class LobbyGUI extends JFrame {
         mainPanel.add(Box.createVerticalStrut(15));
 
         // Tabla de salas
-        JLabel tableTitle = new JLabel("📋 Salas Disponibles (Máximo 4 salas activas)");
+        JLabel tableTitle = new JLabel("📋 Salas Disponibles");
         tableTitle.setFont(new Font("Segoe UI", Font.BOLD, 16));
         tableTitle.setAlignmentX(Component.LEFT_ALIGNMENT);
         mainPanel.add(tableTitle);
         mainPanel.add(Box.createVerticalStrut(10));
 
-        String[] columnNames = {"ID", "Jugador 1", "Jugador 2", "Estado", "Jugadores"};
+        String[] columnNames = {"ID", "Jugador 1", "Jugador 2", "Estado", "Jugadores", "Tablero"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -194,15 +202,46 @@ public class LobbyGUI extends JFrame {
     }
 
     private void handleCreateRoom() {
+        // Reglas de la sala: por defecto el tablero clásico 8x8
+        GameRules defaults = GameRules.DEFAULT;
+        JSpinner rowsSpinner = new JSpinner(new SpinnerNumberModel(defaults.getRows(), GameRules.MIN_SIZE, GameRules.MAX_SIZE, 1));
+        JSpinner colsSpinner = new JSpinner(new SpinnerNumberModel(defaults.getCols(), GameRules.MIN_SIZE, GameRules.MAX_SIZE, 1));
+        JTextField fleetField = new JTextField(defaults.getFleetString(), 15);
+        // Tiempo para disparar en cada turno (0 = sin límite)
+        JSpinner turnSpinner = new JSpinner(new SpinnerNumberModel(DEFAULT_TURN_SECONDS, 0, MAX_TURN_SECONDS, 5));
+
+        JPanel rulesPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        rulesPanel.add(new JLabel("Filas:"));
+        rulesPanel.add(rowsSpinner);
+        rulesPanel.add(new JLabel("Columnas:"));
+        rulesPanel.add(colsSpinner);
+        rulesPanel.add(new JLabel("Tamaños de barcos:"));
+        rulesPanel.add(fleetField);
+        rulesPanel.add(new JLabel("Segundos por turno (0 = sin límite):"));
+        rulesPanel.add(turnSpinner);
+
+        JPanel dialogPanel = new JPanel(new BorderLayout(5, 10));
+        dialogPanel.add(new JLabel("<html>¿Deseas crear una nueva sala?<br>Esperarás a que otro jugador se una.</html>"), BorderLayout.NORTH);
+        dialogPanel.add(rulesPanel, BorderLayout.CENTER);
+
         int confirm = JOptionPane.showConfirmDialog(
             this,
-            "¿Deseas crear una nueva sala?\nEsperarás a que otro jugador se una.",
+            dialogPanel,
             "Crear Sala",
-            JOptionPane.YES_NO_OPTION
+            JOptionPane.OK_CANCEL_OPTION
         );
 
-        if (confirm == JOptionPane.YES_OPTION) {
-            controller.sendMessage(Protocol.CREATE_ROOM);
+        if (confirm == JOptionPane.OK_OPTION) {
+            GameRules rules;
+            try {
+                rules = GameRules.parse(rowsSpinner.getValue().toString(), colsSpinner.getValue().toString(), fleetField.getText());
+            } catch (IllegalArgumentException e) {
+                JOptionPane.showMessageDialog(this, e.getMessage(), "Reglas inválidas", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+
+            // Formato: CREATE_ROOM:filas:columnas:tamaños:segundos_por_turno
+            controller.sendMessage(Protocol.CREATE_ROOM + ":" + rules.toProtocolString() + ":" + turnSpinner.getValue());
             createRoomButton.setEnabled(false);
             createRoomButton.setText("Creando...");
         }
@@ -257,30 +296,11 @@ public class LobbyGUI extends JFrame {
     public void updateRoomList(String roomData) {
         SwingUtilities.invokeLater(() -> {
             tableModel.setRowCount(0);
+            rowIndex.clear();
 
-            if (roomData == null || roomData.trim().isEmpty()) {
-                return;
-            }
-
-            String[] rooms = roomData.split("\\|");
-            for (String roomStr : rooms) {
-                String[] fields = roomStr.split(",");
-                if (fields.length >= 5) {
-                    String roomId = fields[0];
-                    String player1 = fields[1];
-                    String player2 = fields[2];
-                    String state = fields[3];
-                    String playerCount = fields[4];
-
-                    String translatedState = state;
-                    switch (state) {
-                        case "WAITING": translatedState = "Esperando"; break;
-                        case "PLACING_SHIPS": translatedState = "Colocando Barcos"; break;
-                        case "PLAYING": translatedState = "Jugando"; break;
-                        case "FINISHED": translatedState = "Terminado"; break;
-                    }
-
-                    tableModel.addRow(new Object[]{roomId, player1, player2, translatedState, playerCount});
+            if (roomData != null && !roomData.trim().isEmpty()) {
+                for (String roomStr : roomData.split("\\|")) {
+                    upsertRow(roomStr);
                 }
             }
 
@@ -291,6 +311,58 @@ public class LobbyGUI extends JFrame {
         });
     }
 
+    /**
+     * Sala nueva o modificada: solo se toca su fila.
+     */
+    public void onRoomUpdated(String roomStr) {
+        SwingUtilities.invokeLater(() -> upsertRow(roomStr));
+    }
+
+    public void onRoomRemoved(String roomId) {
+        SwingUtilities.invokeLater(() -> {
+            Integer row = rowIndex.remove(roomId);
+            if (row == null) return;
+
+            tableModel.removeRow(row);
+            // Las filas siguientes se corren una posición
+            for (int i = row; i < tableModel.getRowCount(); i++) {
+                rowIndex.put((String) tableModel.getValueAt(i, 0), i);
+            }
+        });
+    }
+
+    // Fila: ID,J1,J2,Estado,Jugadores,Tablero
+    private void upsertRow(String roomStr) {
+        String[] fields = roomStr.split(",");
+        if (fields.length < 5) return;
+
+        String roomId = fields[0];
+        String player1 = fields[1];
+        String player2 = fields[2];
+        String state = fields[3];
+        String playerCount = fields[4];
+        String boardSize = (fields.length > 5) ? fields[5] : GameRules.DEFAULT.getSizeLabel();
+
+        String translatedState = state;
+        switch (state) {
+            case "WAITING": translatedState = "Esperando"; break;
+            case "PLACING_SHIPS": translatedState = "Colocando Barcos"; break;
+            case "PLAYING": translatedState = "Jugando"; break;
+            case "FINISHED": translatedState = "Terminado"; break;
+        }
+
+        Object[] values = {roomId, player1, player2, translatedState, playerCount, boardSize};
+        Integer row = rowIndex.get(roomId);
+        if (row == null) {
+            rowIndex.put(roomId, tableModel.getRowCount());
+            tableModel.addRow(values);
+        } else {
+            for (int col = 1; col < values.length; col++) {
+                tableModel.setValueAt(values[col], row, col);
+            }
+        }
+    }
+
     private double calcularRatio(int victorias, int derrotas) {
         int total = victorias + derrotas;
         if (total == 0) return 0.0;
@@ -344,7 +416,6 @@ public class LobbyGUI extends JFrame {
 
     public void onPlayerJoined(String playerName) {
         SwingUtilities.invokeLater(() -> {
-            requestRoomList();
             String currentStats = playerStatsLabel.getText();
             String newStats = currentStats + " | " + playerName;
             playerStatsLabel.setText(newStats);
@@ -216,6 +216,19 @@ public class RoomWaitingGUI extends JFrame {
         });
     }
 
+    // Nadie se unió antes del plazo de espera: el servidor cerró la sala
+    public void onRoomExpired() {
+        SwingUtilities.invokeLater(() -> {
+            JOptionPane.showMessageDialog(this,
+                "Nadie se unió a la sala a tiempo.\nLa sala se cerró.",
+                "Sala cerrada", JOptionPane.INFORMATION_MESSAGE);
+
+            dispose();
+            LobbyGUI lobby = new LobbyGUI(playerName, controller.getVictorias(), controller.getDerrotas());
+            lobby.setVisible(true);
+        });
+    }
+
     private void handleLeaveRoom() {
         int confirm = JOptionPane.showConfirmDialog(
             this,